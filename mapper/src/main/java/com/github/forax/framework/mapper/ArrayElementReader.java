@@ -0,0 +1,131 @@
+package com.github.forax.framework.mapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Reads the elements of a JSON array one at a time from a {@link Reader}.
+ *
+ * Only the text of the current element is kept in memory, the reader is read
+ * by chunks and is not read further than the chunk containing the end of the element.
+ */
+final class ArrayElementReader {
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private int position;
+  private int limit;
+  private final StringBuilder element = new StringBuilder();
+  private boolean started;
+  private boolean finished;
+  private int count;
+
+  ArrayElementReader(Reader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  private int read() throws IOException {
+    if (position == limit) {
+      var read = reader.read(buffer, 0, buffer.length);
+      if (read == -1) {
+        return -1;
+      }
+      position = 0;
+      limit = read;
+    }
+    return buffer[position++];
+  }
+
+  private static boolean isBlank(int c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  private boolean elementIsBlank() {
+    for(var i = 0; i < element.length(); i++) {
+      if (!isBlank(element.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void start() throws IOException {
+    int c;
+    do {
+      c = read();
+    } while (isBlank(c));
+    if (c != '[') {
+      throw new IllegalStateException("expect a JSON array");
+    }
+    started = true;
+  }
+
+  /**
+   * Returns the text of the next element of the array or {@code null} at the end of the array.
+   *
+   * @return the text of the next element of the array or {@code null} at the end of the array.
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalStateException if the text is not a JSON array
+   */
+  String next() throws IOException {
+    if (finished) {
+      return null;
+    }
+    if (!started) {
+      start();
+    }
+    element.setLength(0);
+    var depth = 0;
+    var inString = false;
+    var escaped = false;
+    for(;;) {
+      var c = read();
+      if (c == -1) {
+        throw new IllegalStateException("unexpected end of input");
+      }
+      if (inString) {
+        element.append((char) c);
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == '"') {
+          inString = false;
+        }
+        continue;
+      }
+      switch (c) {
+        case '"' -> inString = true;
+        case '{', '[' -> depth++;
+        case '}', ']' -> {
+          if (depth == 0) {
+            if (c != ']') {
+              throw new IllegalStateException("unexpected character '}'");
+            }
+            finished = true;
+            if (elementIsBlank()) {
+              if (count != 0) {
+                throw new IllegalStateException("unexpected character ']' after ','");
+              }
+              return null;
+            }
+            count++;
+            return element.toString();
+          }
+          depth--;
+        }
+        case ',' -> {
+          if (depth == 0) {
+            if (elementIsBlank()) {
+              throw new IllegalStateException("unexpected character ','");
+            }
+            count++;
+            return element.toString();
+          }
+        }
+        default -> {}
+      }
+      element.append((char) c);
+    }
+  }
+}
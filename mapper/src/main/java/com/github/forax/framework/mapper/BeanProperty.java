@@ -0,0 +1,130 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A property of a Java bean or a component of a record, found by scanning the public methods
+ * of the class instead of using the {@code java.beans.Introspector}, so the module {@code java.desktop}
+ * is not required and there is no global lock, the properties of a class are computed once.
+ *
+ * A getter is a public instance method without parameter named {@code getFoo}, or {@code isFoo}
+ * if it returns a boolean, a setter is a public instance method returning void with one parameter
+ * named {@code setFoo}, the name of the property is {@code foo} (or {@code URL} for {@code getURL}).
+ * For a record, the properties are the record components in declaration order and have no setter,
+ * for a bean, the properties are sorted by name.
+ *
+ * @param name the name of the property
+ * @param key the key of the property in JSON, the value of the annotation {@link JSONProperty}
+ *            on the getter (or the record component), on the setter, or the name
+ * @param getter the getter or {@code null}
+ * @param setter the setter or {@code null}
+ */
+record BeanProperty(String name, String key, Method getter, Method setter) {
+  private static final ClassValue<List<BeanProperty>> PROPERTIES_CLASS_VALUE = new ClassValue<>() {
+    @Override
+    protected List<BeanProperty> computeValue(Class<?> type) {
+      var properties = MetadataSnapshot.properties(type);
+      return properties != null ? properties : scan(type);
+    }
+  };
+
+  /**
+   * Returns the properties of a class, from the {@link MetadataSnapshot} if the class is in the snapshot.
+   *
+   * @param type a bean class or a record class
+   * @return the properties of the class
+   */
+  static List<BeanProperty> properties(Class<?> type) {
+    return PROPERTIES_CLASS_VALUE.get(type);
+  }
+
+  private static String key(String name, AnnotatedElement... elements) {
+    for(var element : elements) {
+      if (element != null) {
+        var annotation = element.getAnnotation(JSONProperty.class);
+        if (annotation != null) {
+          return annotation.value();
+        }
+      }
+    }
+    return name;
+  }
+
+  private static List<BeanProperty> components(Class<?> recordClass) {
+    return Arrays.stream(recordClass.getRecordComponents())
+        .map(component -> new BeanProperty(component.getName(), key(component.getName(), component), component.getAccessor(), null))
+        .toList();
+  }
+
+  // same rule as java.beans.Introspector.decapitalize()
+  private static String decapitalize(String name) {
+    if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+      return name;
+    }
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  /**
+   * Finds the properties of a class using reflection.
+   *
+   * @param type a bean class or a record class
+   * @return the properties of the class
+   */
+  static List<BeanProperty> scan(Class<?> type) {
+    return type.isRecord() ? components(type) : methods(type);
+  }
+
+  private static List<BeanProperty> methods(Class<?> beanClass) {
+    var getters = new HashMap<String, Method>();
+    var setters = new HashMap<String, List<Method>>();
+    for(var method : beanClass.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getDeclaringClass() == Object.class) {
+        continue;
+      }
+      var name = method.getName();
+      var returnType = method.getReturnType();
+      switch (method.getParameterCount()) {
+        case 0 -> {
+          if (returnType != void.class && name.length() > 3 && name.startsWith("get")) {
+            getters.putIfAbsent(decapitalize(name.substring(3)), method);  // isFoo() is preferred
+          } else if (returnType == boolean.class && name.length() > 2 && name.startsWith("is")) {
+            getters.put(decapitalize(name.substring(2)), method);
+          }
+        }
+        case 1 -> {
+          if (returnType == void.class && name.length() > 3 && name.startsWith("set")) {
+            setters.computeIfAbsent(decapitalize(name.substring(3)), __ -> new ArrayList<>()).add(method);
+          }
+        }
+        default -> {}
+      }
+    }
+    var names = new TreeSet<>(getters.keySet());
+    names.addAll(setters.keySet());
+    return names.stream()
+        .map(name -> {
+          var getter = getters.get(name);
+          var setter = setter(setters.getOrDefault(name, List.of()), getter);
+          return new BeanProperty(name, key(name, getter, setter), getter, setter);
+        })
+        .toList();
+  }
+
+  // the setter which takes the type returned by the getter, or the only setter if there is no getter
+  private static Method setter(List<Method> setters, Method getter) {
+    if (getter == null) {
+      return setters.size() == 1 ? setters.getFirst() : null;
+    }
+    return setters.stream()
+        .filter(setter -> setter.getParameterTypes()[0] == getter.getReturnType())
+        .findFirst()
+        .orElse(null);
+  }
+}
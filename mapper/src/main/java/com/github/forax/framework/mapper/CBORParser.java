@@ -0,0 +1,295 @@
+package com.github.forax.framework.mapper;
+
+import com.github.forax.framework.mapper.ToyJSONParser.JSONVisitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A parser of CBOR (RFC 8949), the binary equivalent of JSON, that calls the methods
+ * of a {@link JSONVisitor} with the same events as {@link ToyJSONParser#parse(String, JSONVisitor)}.
+ *
+ * The integers that fit in an int are reported with {@link JSONVisitor#intValue(String, int)},
+ * the other integers with {@link JSONVisitor#longValue(String, long)}, the floating point numbers (half, single or double precision)
+ * with {@link JSONVisitor#doubleValue(String, double)}, a byte string as a {@code byte[]}.
+ * The tags are skipped and both the definite and the indefinite lengths are supported.
+ *
+ * The {@link JSONLimits} are checked while decoding, the length of a string is checked
+ * before it is copied and the number of elements of an array or a map is checked
+ * as soon as it is known. Whatever the limits, the arrays and the maps can be nested
+ * up to {@value #MAX_DEPTH} levels, so hostile data can not overflow the stack of the recursive decoder.
+ *
+ * @see CBORWriter
+ */
+final class CBORParser {
+  private CBORParser() {
+    throw new AssertionError();
+  }
+
+  private static final int BREAK = 0xFF;
+  private static final int INDEFINITE = 31;
+
+  /**
+   * The maximum number of nested arrays and maps.
+   */
+  static final int MAX_DEPTH = 1_000;
+
+  /**
+   * Parse a CBOR array or a CBOR map and calls the visitor methods when an array, an object or a value is parsed.
+   *
+   * @param input the CBOR data
+   * @param visitor the visitor to call when parsing the data
+   */
+  static void parse(byte[] input, JSONVisitor visitor) {
+    parse(input, visitor, JSONLimits.DEFAULT);
+  }
+
+  /**
+   * Parse a CBOR array or a CBOR map like {@link #parse(byte[], JSONVisitor)} with some limits.
+   *
+   * @param input the CBOR data
+   * @param visitor the visitor to call when parsing the data
+   * @param limits the limits checked when parsing the data
+   */
+  static void parse(byte[] input, JSONVisitor visitor, JSONLimits limits) {
+    var decoder = new Decoder(input, visitor, limits);
+    var major = decoder.peek() >>> 5;
+    if (major != 4 && major != 5) {
+      throw new IllegalStateException("expect a CBOR array or a CBOR map at byte 0");
+    }
+    decoder.value(null);
+    if (decoder.position != input.length) {
+      throw new IllegalStateException("unexpected data at byte " + decoder.position);
+    }
+  }
+
+  private static final class Decoder {
+    private final byte[] input;
+    private final JSONVisitor visitor;
+    private final JSONLimits limits;
+    private int position;
+    private int depth;
+
+    private Decoder(byte[] input, JSONVisitor visitor, JSONLimits limits) {
+      this.input = input;
+      this.visitor = visitor;
+      this.limits = limits;
+    }
+
+    private IllegalStateException error(String message) {
+      return new IllegalStateException(message + " at byte " + position);
+    }
+
+    // the limits report the position of the error like the other errors
+    private void checkStringLength(int length) {
+      try {
+        limits.checkStringLength(length);
+      } catch (IllegalStateException e) {
+        throw error(e.getMessage());
+      }
+    }
+
+    private void checkContainerSize(int size) {
+      try {
+        limits.checkContainerSize(size);
+      } catch (IllegalStateException e) {
+        throw error(e.getMessage());
+      }
+    }
+
+    private int peek() {
+      if (position >= input.length) {
+        throw error("unexpected end of data");
+      }
+      return input[position] & 0xFF;
+    }
+
+    private int read() {
+      var value = peek();
+      position++;
+      return value;
+    }
+
+    private long readBigEndian(int length) {
+      if (length > input.length - position) {
+        throw error("unexpected end of data");
+      }
+      var value = 0L;
+      for(var i = 0; i < length; i++) {
+        value = value << 8 | (input[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    private long argument(int info) {
+      return switch (info) {
+        case 24 -> readBigEndian(1);
+        case 25 -> readBigEndian(2);
+        case 26 -> readBigEndian(4);
+        case 27 -> readBigEndian(8);
+        default -> {
+          if (info >= 24) {
+            throw error("invalid additional information " + info);
+          }
+          yield info;
+        }
+      };
+    }
+
+    // a length or a number of elements, each element takes at least one byte
+    private int length(int info) {
+      var length = argument(info);
+      if (length < 0 || length > input.length - position) {
+        throw error("invalid length " + Long.toUnsignedString(length));
+      }
+      return (int) length;
+    }
+
+    private boolean isBreak() {
+      if (peek() == BREAK) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void integer(String key, long value) {
+      if (value == (int) value) {
+        visitor.intValue(key, (int) value);
+      } else {
+        visitor.longValue(key, value);
+      }
+    }
+
+    private byte[] bytes(int major, int info) {
+      if (info != INDEFINITE) {
+        var length = length(info);
+        checkStringLength(length);
+        var bytes = Arrays.copyOfRange(input, position, position + length);
+        position += length;
+        return bytes;
+      }
+      // the chunks of an indefinite length string have the major type of the string
+      var bytes = new byte[0];
+      while (!isBreak()) {
+        var initial = read();
+        if (initial >>> 5 != major || (initial & 0x1F) == INDEFINITE) {
+          throw error("invalid chunk of an indefinite length string");
+        }
+        var length = length(initial & 0x1F);
+        checkStringLength(bytes.length + length);
+        bytes = Arrays.copyOf(bytes, bytes.length + length);
+        System.arraycopy(input, position, bytes, bytes.length - length, length);
+        position += length;
+      }
+      return bytes;
+    }
+
+    private String text(int info) {
+      if (info != INDEFINITE) {
+        var length = length(info);
+        checkStringLength(length);
+        var text = new String(input, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return text;
+      }
+      return new String(bytes(3, info), StandardCharsets.UTF_8);
+    }
+
+    private String key() {
+      var initial = read();
+      if (initial >>> 5 != 3) {
+        throw error("expect a text string as key");
+      }
+      return text(initial & 0x1F);
+    }
+
+    private void enter() {
+      if (++depth > MAX_DEPTH) {
+        throw error("too many nested arrays or maps, the maximum depth is " + MAX_DEPTH);
+      }
+      try {
+        limits.checkDepth(depth);
+      } catch (IllegalStateException e) {
+        throw error(e.getMessage());
+      }
+    }
+
+    private void value(String key) {
+      var initial = read();
+      while (initial >>> 5 == 6) {
+        argument(initial & 0x1F);  // the tags are ignored
+        initial = read();
+      }
+      var info = initial & 0x1F;
+      switch (initial >>> 5) {
+        case 0 -> {
+          var value = argument(info);
+          if (value < 0) {
+            throw error("integer too large");
+          }
+          integer(key, value);
+        }
+        case 1 -> {
+          var value = argument(info);
+          if (value < 0) {
+            throw error("integer too large");
+          }
+          integer(key, -1 - value);
+        }
+        case 2 -> visitor.value(key, bytes(2, info));
+        case 3 -> visitor.value(key, text(info));
+        case 4 -> {
+          enter();
+          visitor.startArray(key);
+          if (info == INDEFINITE) {
+            for(var size = 1; !isBreak(); size++) {
+              checkContainerSize(size);
+              value(null);
+            }
+          } else {
+            var length = length(info);
+            checkContainerSize(length);
+            for(var i = length; i > 0; i--) {
+              value(null);
+            }
+          }
+          visitor.endArray(key);
+          depth--;
+        }
+        case 5 -> {
+          enter();
+          visitor.startObject(key);
+          if (info == INDEFINITE) {
+            for(var size = 1; !isBreak(); size++) {
+              checkContainerSize(size);
+              value(key());
+            }
+          } else {
+            var length = length(info);
+            checkContainerSize(length);
+            for(var i = length; i > 0; i--) {
+              value(key());
+            }
+          }
+          visitor.endObject(key);
+          depth--;
+        }
+        case 7 -> simple(key, info);
+        default -> throw new AssertionError();
+      }
+    }
+
+    private void simple(String key, int info) {
+      switch (info) {
+        case 20 -> visitor.value(key, false);
+        case 21 -> visitor.value(key, true);
+        case 22, 23 -> visitor.value(key, null);
+        case 25 -> visitor.doubleValue(key, Float.float16ToFloat((short) readBigEndian(2)));
+        case 26 -> visitor.doubleValue(key, Float.intBitsToFloat((int) readBigEndian(4)));
+        case 27 -> visitor.doubleValue(key, Double.longBitsToDouble(readBigEndian(8)));
+        default -> throw error("unsupported simple value " + info);
+      }
+    }
+  }
+}
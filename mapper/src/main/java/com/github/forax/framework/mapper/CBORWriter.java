@@ -0,0 +1,212 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes an object to CBOR (RFC 8949), the binary equivalent of {@link JSONWriter#toJSON(Object)}.
+ *
+ * The properties of a bean are the same as the ones found by the {@link JSONWriter},
+ * the keys are encoded once per class. The integers use the shortest encoding
+ * and a double is encoded as a float if there is no loss of precision.
+ *
+ * @see CBORParser
+ */
+public final class CBORWriter {
+  private record Field(byte[] key, Method getter) { }
+
+  private static final ClassValue<List<Field>> FIELDS_CLASS_VALUE = new ClassValue<>() {
+    @Override
+    protected List<Field> computeValue(Class<?> type) {
+      return JSONWriter.properties(type).stream()
+          .map(property -> {
+            var buffer = new Buffer();
+            buffer.string(property.name());
+            return new Field(buffer.toByteArray(), property.getter());
+          })
+          .toList();
+    }
+  };
+
+  private static final class Buffer {
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    private void ensureCapacity(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + length));
+      }
+    }
+
+    void put(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    void put(byte[] array) {
+      ensureCapacity(array.length);
+      System.arraycopy(array, 0, bytes, size, array.length);
+      size += array.length;
+    }
+
+    private void putBigEndian(long value, int length) {
+      ensureCapacity(length);
+      for(var shift = (length - 1) << 3; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void header(int major, long argument) {
+      var type = major << 5;
+      if (argument < 24) {
+        put(type | (int) argument);
+      } else if (argument < 1L << 8) {
+        put(type | 24);
+        putBigEndian(argument, 1);
+      } else if (argument < 1L << 16) {
+        put(type | 25);
+        putBigEndian(argument, 2);
+      } else if (argument < 1L << 32) {
+        put(type | 26);
+        putBigEndian(argument, 4);
+      } else {
+        put(type | 27);
+        putBigEndian(argument, 8);
+      }
+    }
+
+    void integer(long value) {
+      if (value >= 0) {
+        header(0, value);
+      } else {
+        header(1, -1 - value);
+      }
+    }
+
+    void floatingPoint(double value) {
+      var floatValue = (float) value;
+      if (floatValue == value || Double.isNaN(value)) {
+        put(0xFA);
+        putBigEndian(Float.floatToIntBits(floatValue), 4);
+        return;
+      }
+      put(0xFB);
+      putBigEndian(Double.doubleToLongBits(value), 8);
+    }
+
+    void string(String text) {
+      // an ASCII string is copied without creating an intermediary array
+      var length = text.length();
+      for(var i = 0; i < length; i++) {
+        if (text.charAt(i) >= 0x80) {
+          var utf8 = text.getBytes(StandardCharsets.UTF_8);
+          header(3, utf8.length);
+          put(utf8);
+          return;
+        }
+      }
+      header(3, length);
+      ensureCapacity(length);
+      for(var i = 0; i < length; i++) {
+        bytes[size++] = (byte) text.charAt(i);
+      }
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+  }
+
+  private void write(Buffer buffer, Object o) {
+    switch (o) {
+      case null -> buffer.put(0xF6);
+      case Boolean b -> buffer.put(b ? 0xF5 : 0xF4);
+      case Integer i -> buffer.integer(i);
+      case Long l -> buffer.integer(l);
+      case Short s -> buffer.integer(s);
+      case Byte b -> buffer.integer(b);
+      case Double d -> buffer.floatingPoint(d);
+      case Float f -> buffer.floatingPoint(f);
+      case String s -> buffer.string(s);
+      case Character c -> buffer.string(String.valueOf(c));
+      case Enum<?> e -> buffer.string(e.name());
+      case byte[] bytes -> {
+        buffer.header(2, bytes.length);
+        buffer.put(bytes);
+      }
+      case int[] array -> {
+        buffer.header(4, array.length);
+        for(var element : array) {
+          buffer.integer(element);
+        }
+      }
+      case long[] array -> {
+        buffer.header(4, array.length);
+        for(var element : array) {
+          buffer.integer(element);
+        }
+      }
+      case double[] array -> {
+        buffer.header(4, array.length);
+        for(var element : array) {
+          buffer.floatingPoint(element);
+        }
+      }
+      case Object[] array -> {
+        buffer.header(4, array.length);
+        for(var element : array) {
+          write(buffer, element);
+        }
+      }
+      case Object array when array.getClass().isArray() -> {
+        // the other arrays of primitive types, the elements are boxed
+        var length = Array.getLength(array);
+        buffer.header(4, length);
+        for(var i = 0; i < length; i++) {
+          write(buffer, Array.get(array, i));
+        }
+      }
+      case Collection<?> collection -> {
+        buffer.header(4, collection.size());
+        for(var element : collection) {
+          write(buffer, element);
+        }
+      }
+      case Map<?, ?> map -> {
+        buffer.header(5, map.size());
+        for(var entry : map.entrySet()) {
+          buffer.string(String.valueOf(entry.getKey()));
+          write(buffer, entry.getValue());
+        }
+      }
+      default -> {
+        var fields = FIELDS_CLASS_VALUE.get(o.getClass());
+        buffer.header(5, fields.size());
+        for(var field : fields) {
+          buffer.put(field.key);
+          write(buffer, Utils.invokeMethod(o, field.getter));
+        }
+      }
+    }
+  }
+
+  /**
+   * Encodes an object to CBOR.
+   * The object can be {@code null}, a boolean, an integer, a floating point number, a string,
+   * a character, an enum (encoded as the name of the constant), an array of bytes (encoded as a byte string),
+   * an array of primitive values, an array of objects, a collection, a map or a bean.
+   *
+   * @param o the object to encode
+   * @return the CBOR encoding of the object
+   */
+  public byte[] toCBOR(Object o) {
+    var buffer = new Buffer();
+    write(buffer, o);
+    return buffer.toByteArray();
+  }
+}
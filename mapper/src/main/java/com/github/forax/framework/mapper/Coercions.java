@@ -0,0 +1,139 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Method handles that coerce a value produced by the {@link ToyJSONParser} (an {@link Integer} or a {@link Double})
+ * to the numeric type of a setter parameter or a record component, e.g. an int to a long or a double to a float,
+ * or a string to the constant of an enum with the same name.
+ *
+ * A coercion never loses information silently, a value out of the range of an integral type,
+ * a fractional value for an integral type or a value that is not a number is rejected
+ * with an {@link IllegalStateException}.
+ */
+final class Coercions {
+  private Coercions() {
+    throw new AssertionError();
+  }
+
+  private static final Set<Class<?>> NUMERIC_TYPES =
+      Set.of(byte.class, short.class, int.class, long.class, float.class, double.class);
+
+  private static final MethodHandle INTEGRAL, FLOATING, IS_NULL, ENUM_CONSTANT;
+  static {
+    var lookup = MethodHandles.lookup();
+    try {
+      INTEGRAL = lookup.findStatic(Coercions.class, "integral", methodType(long.class, String.class, Class.class, long.class, long.class, Object.class));
+      FLOATING = lookup.findStatic(Coercions.class, "floating", methodType(double.class, String.class, Class.class, Object.class));
+      ENUM_CONSTANT = lookup.findStatic(Coercions.class, "enumConstant", methodType(Object.class, Class.class, KeyTable.class, Object.class));
+      IS_NULL = lookup.findStatic(Objects.class, "isNull", methodType(boolean.class, Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static IllegalStateException invalid(String name, Class<?> type, Object value) {
+    var target = (name == null ? "an element" : "key " + name) + " of type " + type.getName();
+    if (value == null) {
+      return new IllegalStateException("null is not a valid value for " + target);
+    }
+    return new IllegalStateException("invalid value " + value + " for " + target);
+  }
+
+  private static long integral(String name, Class<?> type, long min, long max, Object value) {
+    long result;
+    if (value instanceof Double || value instanceof Float) {
+      var number = ((Number) value).doubleValue();
+      // a fractional value or a value out of the range of a long is rejected
+      if (number != Math.rint(number) || number < -0x1p63 || number >= 0x1p63) {
+        throw invalid(name, type, value);
+      }
+      result = (long) number;
+    } else if (value instanceof Number number) {
+      result = number.longValue();
+    } else {
+      throw invalid(name, type, value);
+    }
+    if (result < min || result > max) {
+      throw invalid(name, type, value);
+    }
+    return result;
+  }
+
+  private static double floating(String name, Class<?> type, Object value) {
+    if (!(value instanceof Number number)) {
+      throw invalid(name, type, value);
+    }
+    var result = number.doubleValue();
+    if (type == float.class && Double.isFinite(result) && Math.abs(result) > Float.MAX_VALUE) {
+      throw invalid(name, type, value);
+    }
+    return result;
+  }
+
+  /**
+   * The constants of an enum indexed by name, computed once per enum.
+   */
+  private static final ClassValue<KeyTable<Object>> ENUM_CONSTANTS_CLASS_VALUE = new ClassValue<>() {
+    @Override
+    protected KeyTable<Object> computeValue(Class<?> type) {
+      return KeyTable.of(Arrays.stream(type.getEnumConstants())
+          .collect(toMap(constant -> ((Enum<?>) constant).name(), constant -> constant)));
+    }
+  };
+
+  private static Object enumConstant(Class<?> enumClass, KeyTable<?> constants, Object value) {
+    if (value == null || enumClass.isInstance(value)) {
+      return value;
+    }
+    var constant = value instanceof String name ? constants.get(name) : null;
+    if (constant == null) {
+      throw new IllegalStateException("invalid value " + value + " for enum " + enumClass.getName());
+    }
+    return constant;
+  }
+
+  /**
+   * Returns a method handle of type {@code (Object)type} that converts a JSON number or a JSON string
+   * to the type or {@code null} if no conversion is needed apart from a cast.
+   *
+   * @param type the type of the setter parameter or record component
+   * @param name the key of the property or the component, or {@code null} for an element of a container,
+   *             used in the error messages
+   * @return a method handle that converts a JSON number or a JSON string or {@code null}
+   */
+  static MethodHandle coercion(Class<?> type, String name) {
+    if (type.isEnum()) {
+      return MethodHandles.insertArguments(ENUM_CONSTANT, 0, type, ENUM_CONSTANTS_CLASS_VALUE.get(type))
+          .asType(methodType(type, Object.class));
+    }
+    var primitive = MethodType.methodType(type).unwrap().returnType();
+    if (!NUMERIC_TYPES.contains(primitive)) {
+      return null;
+    }
+    var conversion = switch (primitive.getName()) {
+      case "byte" -> MethodHandles.insertArguments(INTEGRAL, 0, name, primitive, Byte.MIN_VALUE, Byte.MAX_VALUE);
+      case "short" -> MethodHandles.insertArguments(INTEGRAL, 0, name, primitive, Short.MIN_VALUE, Short.MAX_VALUE);
+      case "int" -> MethodHandles.insertArguments(INTEGRAL, 0, name, primitive, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      case "long" -> MethodHandles.insertArguments(INTEGRAL, 0, name, primitive, Long.MIN_VALUE, Long.MAX_VALUE);
+      default -> MethodHandles.insertArguments(FLOATING, 0, name, primitive);
+    };
+    // the value is in the range of the primitive type, so the narrowing conversion is exact
+    var coercion = MethodHandles.explicitCastArguments(conversion, methodType(primitive, Object.class))
+        .asType(methodType(type, Object.class));
+    if (type.isPrimitive()) {
+      return coercion;
+    }
+    // a wrapper type accepts null
+    var nullValue = MethodHandles.dropArguments(MethodHandles.constant(type, null), 0, Object.class);
+    return MethodHandles.guardWithTest(IS_NULL, nullValue, coercion);
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.List;
+
+/**
+ * The constraints of a property declared with {@link JSONRequired}, {@link JSONRange} and {@link JSONMaxLength}.
+ * The value of a property is checked before being inserted, so an invalid JSON text is rejected
+ * before the object graph is fully created.
+ *
+ * @param key the key of the property
+ * @param bit the bit of the key among the required keys of the class or 0 if the key is not required
+ * @param min the minimum value of a number
+ * @param max the maximum value of a number
+ * @param maxLength the maximum length of a string
+ */
+record Constraint(String key, long bit, double min, double max, int maxLength) {
+  /**
+   * Returns the constraints of an annotated setter or record component.
+   *
+   * @param key the key of the property
+   * @param element the setter or the record component
+   * @param required the required constraints already found in the class, the constraint is added if required
+   * @return the constraints or {@code null} if there is no constraint
+   */
+  static Constraint of(String key, AnnotatedElement element, List<Constraint> required) {
+    var isRequired = element.isAnnotationPresent(JSONRequired.class);
+    var range = element.getAnnotation(JSONRange.class);
+    var maxLength = element.getAnnotation(JSONMaxLength.class);
+    if (!isRequired && range == null && maxLength == null) {
+      return null;
+    }
+    if (isRequired && required.size() == Long.SIZE) {
+      throw new IllegalStateException("too many required keys, the maximum is " + Long.SIZE + " " + element);
+    }
+    var constraint = new Constraint(key,
+        isRequired ? 1L << required.size() : 0L,
+        range == null ? Double.NEGATIVE_INFINITY : range.min(),
+        range == null ? Double.POSITIVE_INFINITY : range.max(),
+        maxLength == null ? Integer.MAX_VALUE : maxLength.value());
+    if (isRequired) {
+      required.add(constraint);
+    }
+    return constraint;
+  }
+
+  /**
+   * Checks the value of the property.
+   *
+   * @param value the value decoded from the JSON text
+   * @throws IllegalStateException if the value is not valid
+   */
+  void check(Object value) {
+    switch (value) {
+      case Number number -> {
+        var doubleValue = number.doubleValue();
+        if (doubleValue < min || doubleValue > max) {
+          throw new IllegalStateException("value " + value + " of key " + key + " is not in the range [" + min + ", " + max + "]");
+        }
+      }
+      case String string -> {
+        if (string.length() > maxLength) {
+          throw new IllegalStateException("value of key " + key + " is longer than " + maxLength + " characters");
+        }
+      }
+      case null, default -> {}
+    }
+  }
+
+  /**
+   * Checks that all required keys were seen.
+   *
+   * @param required the required constraints of a class
+   * @param seen the bits of the keys seen
+   * @param type the class
+   * @throws IllegalStateException if a required key is missing
+   */
+  static void checkRequired(Constraint[] required, long seen, Class<?> type) {
+    for(var constraint : required) {
+      if ((seen & constraint.bit) == 0) {
+        throw new IllegalStateException("missing required key " + constraint.key + " for " + type.getName());
+      }
+    }
+  }
+}
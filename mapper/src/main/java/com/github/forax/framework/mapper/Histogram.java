@@ -0,0 +1,114 @@
+package com.github.forax.framework.mapper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of positive values (durations in nanoseconds) in the spirit of HdrHistogram.
+ *
+ * The buckets are log-linear, each power of two is divided into {@value #SUB_BUCKETS} buckets,
+ * so a value is recorded with a relative error of at most 12.5% whatever its magnitude,
+ * the values less than {@value #SUB_BUCKETS} are recorded exactly.
+ * Recording a value is one atomic increment of its bucket, the sum and the maximum
+ * are recorded in striped cells to avoid contention between threads.
+ */
+public final class Histogram {
+  private static final int SUB_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    var magnitude = 63 - Long.numberOfLeadingZeros(value);
+    var sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  static long lowestValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    var magnitude = index / SUB_BUCKETS - 1 + SUB_BITS;
+    return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (magnitude - SUB_BITS);
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value a positive value, a negative value is recorded as zero
+   */
+  public void record(long value) {
+    value = Math.max(0, value);
+    counts.incrementAndGet(index(value));
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Returns the number of values recorded.
+   * @return the number of values recorded.
+   */
+  public long count() {
+    var count = 0L;
+    for(var i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the maximum value recorded or 0.
+   * @return the maximum value recorded or 0.
+   */
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns the mean of the values recorded or 0.
+   * @return the mean of the values recorded or 0.
+   */
+  public double mean() {
+    var count = count();
+    return count == 0 ? 0 : (double) sum.sum() / count;
+  }
+
+  /**
+   * Returns the value under which a percentage of the values recorded are,
+   * the value is the lowest value of its bucket.
+   *
+   * @param percentile a percentage between 0 and 100
+   * @return the value at the percentile or 0 if no value is recorded
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   */
+  public long valueAtPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("invalid percentile " + percentile);
+    }
+    var count = count();
+    if (count == 0) {
+      return 0;
+    }
+    var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    var seen = 0L;
+    for(var i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return lowestValue(i);
+      }
+    }
+    return max();
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + count() + " mean=" + mean() + " p50=" + valueAtPercentile(50) + " p99=" + valueAtPercentile(99) + " max=" + max();
+  }
+}
@@ -0,0 +1,386 @@
+package com.github.forax.framework.mapper;
+
+import com.github.forax.framework.mapper.ToyJSONParser.JSONVisitor;
+
+import java.util.Arrays;
+
+/**
+ * A scalar JSON parser in two stages, the layout of simdjson without the SIMD instructions.
+ *
+ * The first stage reads the text by blocks of 64 characters, a plain loop with a switch
+ * classifies each character into a 64-bit mask per character class (one bit per character).
+ * The escaped characters and the content of the strings are then computed on the whole block
+ * with bitwise operations instead of a state machine. The result is the index of the positions
+ * of the structural characters ({@code {}[]:,}), of the quotes and of the first character
+ * of each number or literal.
+ *
+ * The second stage walks that index and calls the methods of the {@link JSONVisitor},
+ * with the same events as {@link ToyJSONParser#parse(String, JSONVisitor)},
+ * the numbers and the literals are checked with the same grammar, so both parsers reject the same texts.
+ *
+ * @see #parse(String, JSONVisitor)
+ */
+final class IndexedJSONParser {
+  private IndexedJSONParser() {
+    throw new AssertionError();
+  }
+
+  private static final long EVEN_BITS = 0x5555_5555_5555_5555L;
+  private static final long ODD_BITS = ~EVEN_BITS;
+
+  /**
+   * The positions of the structural characters, the quotes and the first character of the scalars.
+   *
+   * @param positions the positions, sorted
+   * @param size the number of positions
+   */
+  record Structurals(int[] positions, int size) { }
+
+  /**
+   * First stage, computes the positions of the structural characters of a text.
+   *
+   * @param input a JSON text
+   * @return the positions of the structural characters
+   */
+  static Structurals structurals(String input) {
+    return structurals(input, 0, input.length());
+  }
+
+  /**
+   * First stage, computes the positions of the structural characters of the JSON text
+   * between two indexes of an input, the positions are indexes in the input.
+   *
+   * @param input a text containing a JSON text
+   * @param start the start index of the JSON text (inclusive)
+   * @param end the end index of the JSON text (exclusive)
+   * @return the positions of the structural characters
+   */
+  static Structurals structurals(String input, int start, int end) {
+    var positions = new int[Math.max(16, (end - start) >> 2)];
+    var size = 0;
+    var prevEndsOddBackslash = 0L;
+    var prevInString = 0L;
+    var prevScalar = 0L;
+    for(var base = start; base < end; base += 64) {
+      // classify the characters of the block, one branch per character
+      var limit = Math.min(64, end - base);
+      long backslashes = 0, quotes = 0, operators = 0, blanks = 0;
+      for(var i = 0; i < limit; i++) {
+        var bit = 1L << i;
+        switch (input.charAt(base + i)) {
+          case '\\' -> backslashes |= bit;
+          case '"' -> quotes |= bit;
+          case '{', '}', '[', ']', ':', ',' -> operators |= bit;
+          case ' ', '\t', '\n', '\r' -> blanks |= bit;
+          default -> {}
+        }
+      }
+      if (limit < 64) {
+        blanks |= -1L << limit;  // the characters after the end of the text are seen as blanks
+      }
+
+      // find the characters escaped by an odd-length sequence of backslashes
+      var startEdges = backslashes & ~(backslashes << 1);
+      var evenStartMask = EVEN_BITS ^ prevEndsOddBackslash;
+      var evenStarts = startEdges & evenStartMask;
+      var oddStarts = startEdges & ~evenStartMask;
+      var evenCarries = backslashes + evenStarts;
+      var oddCarries = backslashes + oddStarts;
+      var endsOddBackslash = Long.compareUnsigned(oddCarries, backslashes) < 0;  // overflow
+      oddCarries |= prevEndsOddBackslash;
+      prevEndsOddBackslash = endsOddBackslash ? 1L : 0L;
+      var evenCarryEnds = evenCarries & ~backslashes;
+      var oddCarryEnds = oddCarries & ~backslashes;
+      var escaped = (evenCarryEnds & ODD_BITS) | (oddCarryEnds & EVEN_BITS);
+
+      // the content of the strings is between an opening quote (included) and a closing quote (excluded)
+      quotes &= ~escaped;
+      var inString = prefixXor(quotes) ^ prevInString;
+      prevInString = inString >> 63;
+
+      // the first character of a number or a literal
+      var scalars = ~(operators | blanks | quotes) & ~inString;
+      var scalarStarts = scalars & ~((scalars << 1) | prevScalar);
+      prevScalar = scalars >>> 63;
+
+      var structurals = ((operators | scalarStarts) & ~inString) | quotes;
+      if (size + Long.bitCount(structurals) > positions.length) {
+        positions = Arrays.copyOf(positions, Math.max(positions.length << 1, size + 64));
+      }
+      for(; structurals != 0; structurals &= structurals - 1) {
+        positions[size++] = base + Long.numberOfTrailingZeros(structurals);
+      }
+    }
+    if (prevInString != 0) {
+      throw new IllegalStateException("unterminated string");
+    }
+    return new Structurals(positions, size);
+  }
+
+  private static long prefixXor(long bits) {
+    bits ^= bits << 1;
+    bits ^= bits << 2;
+    bits ^= bits << 4;
+    bits ^= bits << 8;
+    bits ^= bits << 16;
+    bits ^= bits << 32;
+    return bits;
+  }
+
+  /**
+   * Parse a JSON text and calls the visitor methods when an array, an object or a value is parsed.
+   * As with {@link ToyJSONParser#parse(String, JSONVisitor)}, an error reports the line and the column
+   * of the current structural character.
+   *
+   * @param input a JSON text
+   * @param visitor the visitor to call when parsing the JSON text
+   */
+  public static void parse(String input, JSONVisitor visitor) {
+    parse(input, visitor, JSONLimits.DEFAULT);
+  }
+
+  /**
+   * Parse a JSON text like {@link #parse(String, JSONVisitor)} with some limits.
+   * The limits are checked by the second stage, the whole text is indexed first.
+   *
+   * @param input a JSON text
+   * @param visitor the visitor to call when parsing the JSON text
+   * @param limits the limits checked when parsing the JSON text
+   */
+  public static void parse(String input, JSONVisitor visitor, JSONLimits limits) {
+    parse(input, 0, input.length(), visitor, limits);
+  }
+
+  /**
+   * Parse the JSON text between two indexes of an input, without copying it,
+   * an error reports the line and the column in the whole input.
+   *
+   * @param input a text containing a JSON text
+   * @param start the start index of the JSON text (inclusive)
+   * @param end the end index of the JSON text (exclusive)
+   * @param visitor the visitor to call when parsing the JSON text
+   * @param limits the limits checked when parsing the JSON text
+   */
+  static void parse(String input, int start, int end, JSONVisitor visitor, JSONLimits limits) {
+    var walker = new Walker(input, end, structurals(input, start, end), visitor, limits);
+    try {
+      walker.walk();
+    } catch(IllegalStateException e) {
+      throw new IllegalStateException(TextLocation.describe(e.getMessage(), input, walker.location()), e);
+    }
+  }
+
+  /**
+   * Second stage, walks the structural positions.
+   */
+  private static final class Walker {
+    private final String input;
+    private final int textEnd;
+    private final int[] positions;
+    private final int size;
+    private final JSONVisitor visitor;
+    private final JSONLimits limits;
+    private int index;
+
+    private Walker(String input, int textEnd, Structurals structurals, JSONVisitor visitor, JSONLimits limits) {
+      this.input = input;
+      this.textEnd = textEnd;
+      this.positions = structurals.positions;
+      this.size = structurals.size;
+      this.visitor = visitor;
+      this.limits = limits;
+    }
+
+    private int location() {
+      return index < size ? positions[index] : textEnd;
+    }
+
+    private IllegalStateException error(String message) {
+      return new IllegalStateException(message);
+    }
+
+    private char peek() {
+      if (index >= size) {
+        throw error("unexpected end of text");
+      }
+      return input.charAt(positions[index]);
+    }
+
+    private void expect(char c) {
+      if (peek() != c) {
+        throw error("expect '" + c + "' but recognized '" + peek() + "'");
+      }
+      index++;
+    }
+
+    private String string(boolean isKey) {
+      // the opening quote is followed by the closing quote in the index
+      var start = positions[index] + 1;
+      if (index + 1 >= size) {
+        throw error("unterminated string");
+      }
+      var end = positions[index + 1];
+      limits.checkStringLength(end - start);
+      index += 2;
+      if (input.indexOf('\\', start, end) == -1) {
+        var string = isKey ? visitor.key(input, start, end) : visitor.string(input, start, end);
+        return string != null ? string : input.substring(start, end);
+      }
+      return ToyJSONParser.unescape(input.substring(start, end), start);
+    }
+
+    private void walk() {
+      var keys = new String[16];
+      var objects = new boolean[16];
+      var sizes = new int[16];
+      var depth = 0;
+      var c = peek();
+      if (c != '{' && c != '[') {
+        throw error("expect '{' or '[' but recognized '" + c + "'");
+      }
+      String key = null;
+      for(;;) {
+        // parse a value
+        c = peek();
+        switch (c) {
+          case '{', '[' -> {
+            index++;
+            if (depth == keys.length) {
+              keys = Arrays.copyOf(keys, depth << 1);
+              objects = Arrays.copyOf(objects, depth << 1);
+              sizes = Arrays.copyOf(sizes, depth << 1);
+            }
+            var isObject = c == '{';
+            keys[depth] = key;
+            sizes[depth] = 1;
+            objects[depth++] = isObject;
+            limits.checkDepth(depth);
+            if (isObject) {
+              visitor.startObject(key);
+            } else {
+              visitor.startArray(key);
+            }
+            if (peek() == (isObject ? '}' : ']')) {
+              index++;
+              depth--;
+              if (isObject) {
+                visitor.endObject(key);
+              } else {
+                visitor.endArray(key);
+              }
+              break;
+            }
+            key = isObject ? member() : null;
+            continue;
+          }
+          case '"' -> visitor.value(key, string(false));
+          default -> scalar(key);
+        }
+        // after a value
+        for(;;) {
+          if (depth == 0) {
+            if (index != size) {
+              throw error("unexpected character '" + peek() + "'");
+            }
+            return;
+          }
+          var isObject = objects[depth - 1];
+          var separator = peek();
+          if (separator == ',') {
+            limits.checkContainerSize(++sizes[depth - 1]);
+            index++;
+            key = isObject ? member() : null;
+            break;
+          }
+          if (separator != (isObject ? '}' : ']')) {
+            throw error("unexpected character '" + separator + "'");
+          }
+          index++;
+          key = keys[--depth];
+          if (isObject) {
+            visitor.endObject(key);
+          } else {
+            visitor.endArray(key);
+          }
+        }
+      }
+    }
+
+    private String member() {
+      if (peek() != '"') {
+        throw error("expect a key but recognized '" + peek() + "'");
+      }
+      var key = string(true);
+      expect(':');
+      return key;
+    }
+
+    private void scalar(String key) {
+      var start = positions[index];
+      var end = index + 1 < size ? positions[index + 1] : textEnd;
+      while (end > start && isBlank(input.charAt(end - 1))) {
+        end--;
+      }
+      switch (input.charAt(start)) {
+        case 't' -> literal(start, end, "true", key, true);
+        case 'f' -> literal(start, end, "false", key, false);
+        case 'n' -> literal(start, end, "null", key, null);
+        default -> number(start, end, key);
+      }
+      index++;
+    }
+
+    private static boolean isBlank(char c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private void literal(int start, int end, String literal, String key, Object value) {
+      if (end - start != literal.length() || !input.startsWith(literal, start)) {
+        throw error("invalid literal " + input.substring(start, end));
+      }
+      visitor.value(key, value);
+    }
+
+    private void number(int start, int end, String key) {
+      limits.checkNumberLength(end - start);
+      // the same grammar as the ToyJSONParser, -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+      var i = start;
+      if (input.charAt(i) == '-') {
+        i++;
+      }
+      i = i < end && input.charAt(i) == '0' ? i + 1 : digits(start, i, end);
+      var floating = false;
+      if (i < end && input.charAt(i) == '.') {
+        i = digits(start, i + 1, end);
+        floating = true;
+      }
+      if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+        i++;
+        if (i < end && (input.charAt(i) == '+' || input.charAt(i) == '-')) {
+          i++;
+        }
+        i = digits(start, i, end);
+        floating = true;
+      }
+      if (i != end) {
+        throw error("invalid number " + input.substring(start, end));
+      }
+      if (floating) {
+        visitor.doubleValue(key, Double.parseDouble(input.substring(start, end)));
+      } else {
+        ToyJSONParser.integer(input, start, end, key, visitor);
+      }
+    }
+
+    private int digits(int start, int index, int end) {
+      var i = index;
+      while (i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9') {
+        i++;
+      }
+      if (i == index) {
+        throw error("invalid number " + input.substring(start, end));
+      }
+      return i;
+    }
+  }
+}
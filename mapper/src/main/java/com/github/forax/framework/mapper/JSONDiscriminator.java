@@ -0,0 +1,20 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The key of the JSON object that names the concrete type of the annotated sealed interface,
+ * by default the key is {@code "type"}.
+ * The discriminator is only used to select the subtype, it is not bound to a property of the subtype.
+ *
+ * @see JSONTypeName
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JSONDiscriminator {
+  String value() default "type";
+}
@@ -0,0 +1,97 @@
+package com.github.forax.framework.mapper;
+
+/**
+ * Limits enforced while parsing a JSON text or CBOR data, so a hostile document (a deeply nested array,
+ * a huge string, number, array or object) is rejected as soon as the offending prefix is read,
+ * before the parser allocates anything for it.
+ *
+ * @param maxDepth the maximum number of nested objects and arrays
+ * @param maxStringLength the maximum number of characters of a string or a key, escape sequences included,
+ *                        or the maximum number of bytes of a CBOR string
+ * @param maxNumberLength the maximum number of characters of a number
+ * @param maxContainerSize the maximum number of elements of an array or of members of an object
+ *
+ * @see JSONReader#useLimits(JSONLimits)
+ */
+public record JSONLimits(int maxDepth, int maxStringLength, int maxNumberLength, int maxContainerSize) {
+  /**
+   * The default limits, a depth of 1 000, strings of 20 000 000 characters,
+   * numbers of 1 000 characters and arrays or objects of 10 000 000 elements.
+   */
+  public static final JSONLimits DEFAULT = new JSONLimits(1_000, 20_000_000, 1_000, 10_000_000);
+
+  /**
+   * Creates limits.
+   *
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public JSONLimits {
+    if (maxDepth <= 0 || maxStringLength <= 0 || maxNumberLength <= 0 || maxContainerSize <= 0) {
+      throw new IllegalArgumentException("invalid limits " + maxDepth + " " + maxStringLength + " " + maxNumberLength + " " + maxContainerSize);
+    }
+  }
+
+  /**
+   * Returns new limits with a different maximum depth.
+   *
+   * @param maxDepth the maximum number of nested objects and arrays
+   * @return new limits with a different maximum depth.
+   */
+  public JSONLimits withMaxDepth(int maxDepth) {
+    return new JSONLimits(maxDepth, maxStringLength, maxNumberLength, maxContainerSize);
+  }
+
+  /**
+   * Returns new limits with a different maximum string length.
+   *
+   * @param maxStringLength the maximum number of characters of a string or a key
+   * @return new limits with a different maximum string length.
+   */
+  public JSONLimits withMaxStringLength(int maxStringLength) {
+    return new JSONLimits(maxDepth, maxStringLength, maxNumberLength, maxContainerSize);
+  }
+
+  /**
+   * Returns new limits with a different maximum number length.
+   *
+   * @param maxNumberLength the maximum number of characters of a number
+   * @return new limits with a different maximum number length.
+   */
+  public JSONLimits withMaxNumberLength(int maxNumberLength) {
+    return new JSONLimits(maxDepth, maxStringLength, maxNumberLength, maxContainerSize);
+  }
+
+  /**
+   * Returns new limits with a different maximum container size.
+   *
+   * @param maxContainerSize the maximum number of elements of an array or of members of an object
+   * @return new limits with a different maximum container size.
+   */
+  public JSONLimits withMaxContainerSize(int maxContainerSize) {
+    return new JSONLimits(maxDepth, maxStringLength, maxNumberLength, maxContainerSize);
+  }
+
+  void checkDepth(int depth) {
+    if (depth > maxDepth) {
+      throw new IllegalStateException("too many nested objects or arrays, the maximum depth is " + maxDepth);
+    }
+  }
+
+  void checkStringLength(int length) {
+    if (length > maxStringLength) {
+      throw new IllegalStateException("string too long, the maximum length is " + maxStringLength);
+    }
+  }
+
+  void checkNumberLength(int length) {
+    if (length > maxNumberLength) {
+      throw new IllegalStateException("number too long, the maximum length is " + maxNumberLength);
+    }
+  }
+
+  void checkContainerSize(int size) {
+    if (size > maxContainerSize) {
+      throw new IllegalStateException("too many elements in an array or an object, the maximum size is " + maxContainerSize);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.RECORD_COMPONENT;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The string value of the property (the annotated setter or record component) must have
+ * at most {@link #value()} characters.
+ */
+@Retention(RUNTIME)
+@Target({METHOD, RECORD_COMPONENT})
+public @interface JSONMaxLength {
+  int value();
+}
@@ -0,0 +1,330 @@
+package com.github.forax.framework.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A JSON Pointer (RFC 6901) extended with the wildcard {@code *} that matches
+ * any key of an object or any element of an array.
+ * <pre>
+ *   var totals = JSONPath.compile("/orders/*&#47;total").extract(text);
+ * </pre>
+ *
+ * The text is scanned directly, only the keys and the elements on the path are examined,
+ * the values that are not on the path are skipped by only looking for their end,
+ * without decoding them and without calling a {@link ToyJSONParser.JSONVisitor}.
+ * Each matching value is returned as a {@link LazyJSON}.
+ */
+public final class JSONPath {
+  private static final String WILDCARD = "*";
+
+  private final String pointer;
+  private final String[] segments;
+  private final int[] indexes;  // the array index of each segment or -1
+
+  private JSONPath(String pointer, String[] segments) {
+    this.pointer = pointer;
+    this.segments = segments;
+    this.indexes = Arrays.stream(segments).mapToInt(JSONPath::index).toArray();
+  }
+
+  private static int index(String segment) {
+    if (segment.isEmpty() || segment.length() > 9 || (segment.length() > 1 && segment.charAt(0) == '0')) {
+      return -1;
+    }
+    for(var i = 0; i < segment.length(); i++) {
+      var c = segment.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+    }
+    return Integer.parseInt(segment);
+  }
+
+  /**
+   * Compiles a JSON pointer, the empty pointer matches the whole text,
+   * otherwise each segment starts with a {@code /}, in a segment {@code ~1} denotes
+   * a {@code /} and {@code ~0} a {@code ~}, a segment {@code *} matches any key or any element.
+   *
+   * @param pointer a JSON pointer
+   * @return a compiled JSON pointer
+   * @throws IllegalArgumentException if the pointer is not valid
+   */
+  public static JSONPath compile(String pointer) {
+    Objects.requireNonNull(pointer);
+    if (pointer.isEmpty()) {
+      return new JSONPath(pointer, new String[0]);
+    }
+    if (pointer.charAt(0) != '/') {
+      throw new IllegalArgumentException("a JSON pointer should start with '/' " + pointer);
+    }
+    var segments = pointer.substring(1).split("/", -1);
+    for(var i = 0; i < segments.length; i++) {
+      var segment = segments[i];
+      if (segment.matches(".*~(?![01]).*")) {
+        throw new IllegalArgumentException("invalid escape sequence in " + pointer);
+      }
+      // the wildcard is compared by identity
+      segments[i] = segment.equals(WILDCARD) ? WILDCARD : segment.replace("~1", "/").replace("~0", "~");
+    }
+    return new JSONPath(pointer, segments);
+  }
+
+  /**
+   * Returns all the values of a JSON text that match the pointer.
+   *
+   * @param text a JSON text
+   * @return the matching values in the order of the text
+   * @throws IllegalStateException if the text is not valid
+   */
+  public List<LazyJSON> extract(String text) {
+    Objects.requireNonNull(text);
+    var values = new ArrayList<LazyJSON>();
+    new Scanner(text).root(value -> {
+      values.add(value);
+      return true;
+    });
+    return values;
+  }
+
+  /**
+   * Returns the first value of a JSON text that matches the pointer,
+   * the text after the value is not scanned.
+   *
+   * @param text a JSON text
+   * @return the first matching value or an empty optional
+   * @throws IllegalStateException if the text up to the matching value is not valid
+   */
+  public Optional<LazyJSON> extractFirst(String text) {
+    Objects.requireNonNull(text);
+    var result = new LazyJSON[1];
+    new Scanner(text).root(value -> {
+      result[0] = value;
+      return false;
+    });
+    return Optional.ofNullable(result[0]);
+  }
+
+  @Override
+  public String toString() {
+    return pointer;
+  }
+
+  private final class Scanner {
+    private final String text;
+    private int pos;
+
+    private Scanner(String text) {
+      this.text = text;
+    }
+
+    private IllegalStateException error(String message) {
+      return new IllegalStateException(TextLocation.describe(message, text, pos));
+    }
+
+    private char peek() {
+      if (pos >= text.length()) {
+        throw error("unexpected end of text");
+      }
+      return text.charAt(pos);
+    }
+
+    private void skipBlanks() {
+      while (pos < text.length()) {
+        switch (text.charAt(pos)) {
+          case ' ', '\t', '\n', '\r' -> pos++;
+          default -> {
+            return;
+          }
+        }
+      }
+    }
+
+    private void expect(char c) {
+      skipBlanks();
+      if (peek() != c) {
+        throw error("expect '" + c + "' but recognized '" + peek() + "'");
+      }
+      pos++;
+    }
+
+    /**
+     * Skips a string, pos is on the opening quote and is moved after the closing quote.
+     * @return true if the string contains an escape sequence
+     */
+    private boolean skipString() {
+      var escaped = false;
+      var i = pos + 1;
+      for(;;) {
+        var quote = text.indexOf('"', i);
+        if (quote == -1) {
+          throw error("unterminated string");
+        }
+        // a quote preceded by an odd number of backslashes is escaped
+        var backslashes = 0;
+        while (text.charAt(quote - 1 - backslashes) == '\\') {
+          backslashes++;
+        }
+        escaped |= backslashes != 0 || text.indexOf('\\', i, quote) != -1;
+        if ((backslashes & 1) == 0) {
+          pos = quote + 1;
+          return escaped;
+        }
+        i = quote + 1;
+      }
+    }
+
+    private void skipScalar() {
+      var start = pos;
+      while (pos < text.length()) {
+        switch (text.charAt(pos)) {
+          case ',', '}', ']', ' ', '\t', '\n', '\r' -> {
+            if (pos == start) {
+              throw error("expect a value");
+            }
+            return;
+          }
+          default -> pos++;
+        }
+      }
+    }
+
+    /**
+     * Skips a value by looking for its end, the nested objects and arrays are only counted.
+     */
+    private void skipValue() {
+      skipBlanks();
+      switch (peek()) {
+        case '"' -> skipString();
+        case '{', '[' -> {
+          var depth = 0;
+          for(;;) {
+            switch (peek()) {
+              case '"' -> {
+                skipString();
+                continue;
+              }
+              case '{', '[' -> depth++;
+              case '}', ']' -> {
+                if (--depth == 0) {
+                  pos++;
+                  return;
+                }
+              }
+              default -> {}
+            }
+            pos++;
+          }
+        }
+        default -> skipScalar();
+      }
+    }
+
+    // returns true if the key of the current member equals to the segment
+    private boolean keyEquals(String segment) {
+      skipBlanks();
+      if (peek() != '"') {
+        throw error("expect a key but recognized '" + peek() + "'");
+      }
+      var start = pos + 1;
+      var escaped = skipString();
+      var end = pos - 1;
+      if (segment == WILDCARD) {
+        return true;
+      }
+      if (escaped) {
+        return ToyJSONParser.unescape(text.substring(start, end), start).equals(segment);
+      }
+      return end - start == segment.length() && text.regionMatches(start, segment, 0, segment.length());
+    }
+
+    // returns true if the separator is a comma, false if it is the closing character
+    private boolean separator(char closing) {
+      skipBlanks();
+      var c = peek();
+      pos++;
+      if (c == ',') {
+        return true;
+      }
+      if (c != closing) {
+        pos--;
+        throw error("expect ',' or '" + closing + "' but recognized '" + c + "'");
+      }
+      return false;
+    }
+
+    private void root(Predicate<? super LazyJSON> sink) {
+      if (match(0, sink)) {
+        skipBlanks();
+        if (pos != text.length()) {
+          throw error("unexpected character '" + text.charAt(pos) + "'");
+        }
+      }
+    }
+
+    /**
+     * Matches the value at pos with the segments starting at segmentIndex, pos is moved after the value.
+     * @return false if the sink asks to stop
+     */
+    private boolean match(int segmentIndex, Predicate<? super LazyJSON> sink) {
+      skipBlanks();
+      if (segmentIndex == segments.length) {
+        var start = pos;
+        skipValue();
+        return sink.test(LazyJSON.parse(text.substring(start, pos)));
+      }
+      var segment = segments[segmentIndex];
+      switch (peek()) {
+        case '{' -> {
+          pos++;
+          skipBlanks();
+          if (peek() == '}') {
+            pos++;
+            return true;
+          }
+          do {
+            var matches = keyEquals(segment);
+            expect(':');
+            if (matches) {
+              if (!match(segmentIndex + 1, sink)) {
+                return false;
+              }
+            } else {
+              skipValue();
+            }
+          } while (separator('}'));
+          return true;
+        }
+        case '[' -> {
+          pos++;
+          skipBlanks();
+          if (peek() == ']') {
+            pos++;
+            return true;
+          }
+          var index = indexes[segmentIndex];
+          var i = 0;
+          do {
+            if (segment == WILDCARD || i == index) {
+              if (!match(segmentIndex + 1, sink)) {
+                return false;
+              }
+            } else {
+              skipValue();
+            }
+            i++;
+          } while (separator(']'));
+          return true;
+        }
+        default -> {
+          skipValue();
+          return true;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.RECORD_COMPONENT;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The numeric value of the property (the annotated setter or record component) must be
+ * between {@link #min()} and {@link #max()}, both inclusive.
+ */
+@Retention(RUNTIME)
+@Target({METHOD, RECORD_COMPONENT})
+public @interface JSONRange {
+  double min() default Double.NEGATIVE_INFINITY;
+  double max() default Double.POSITIVE_INFINITY;
+}
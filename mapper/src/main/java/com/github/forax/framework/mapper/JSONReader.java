@@ -1,64 +1,1765 @@
 package com.github.forax.framework.mapper;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Constructor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.stream.Collectors.toMap;
 
 public class JSONReader {
-  private record BeanData(Constructor<?> constructor, Map<String, PropertyDescriptor> propertyMap) {
-    PropertyDescriptor findProperty(String key) {
-      var property = propertyMap.get(key);
+  /**
+   * Creates an object or a list, populates it and creates the final object.
+   * A ClassData is also the supplier and the populater of the {@link ObjectBuilder} that wraps it,
+   * so the builders provided by {@link ObjectBuilder#bean(Class)}, {@link ObjectBuilder#list(Type)} and
+   * {@link ObjectBuilder#record(Class)} are unwrapped instead of being called through the functional interfaces.
+   */
+  private sealed interface ClassData extends Supplier<Object>, ObjectBuilder.Populater<Object>
+      permits BeanData, RecordData, CollectionData, MapData, ArrayData, PrimitiveArrayData, BuilderData, SkipData, PolymorphicData {
+    KeyTable<?> keyTable();
+    Type findType(String key);
+    Object newData(ArrayPool pool, int depth);
+    void populate(Object data, String key, Object value);
+    Object finish(Object data);
+
+    default boolean hasRequiredKeys() {
+      return false;
+    }
+
+    default long requiredBit(String key) {
+      return 0L;
+    }
+
+    default void checkRequired(long seen) {
+      // empty
+    }
+
+    @Override
+    default Object get() {
+      return newData(null, 0);
+    }
+
+    default void populateInt(Object data, String key, int value) {
+      populate(data, key, value);
+    }
+
+    default void populateDouble(Object data, String key, double value) {
+      populate(data, key, value);
+    }
+  }
+
+  private record Property(Type type, MethodHandle setter, MethodHandle getter, Constraint constraint) {
+    Object get(Object bean) {
+      if (getter == null) {
+        return null;
+      }
+      try {
+        return getter.invokeExact(bean);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+  }
+
+  private record BeanData(Class<?> beanClass, MethodHandle constructor, KeyTable<Property> keyTable,
+                          boolean ignoreUnknownKeys, Constraint[] required) implements ClassData {
+    /**
+     * Returns the property of the key or {@code null} if the key is unknown and the unknown keys are ignored.
+     */
+    Property findProperty(String key) {
+      var property = key == null ? null : keyTable.get(key);
+      if (property == null && (key == null || !ignoreUnknownKeys)) {
+        throw new IllegalStateException("unknown key " + key + " for bean " + beanClass.getName());
+      }
+      return property;
+    }
+
+    @Override
+    public Type findType(String key) {
+      var property = findProperty(key);
+      return property == null ? UNKNOWN_KEY_TYPE : property.type;
+    }
+
+    @Override
+    public boolean hasRequiredKeys() {
+      return required.length != 0;
+    }
+
+    @Override
+    public long requiredBit(String key) {
+      var property = keyTable.get(key);
+      return property == null || property.constraint == null ? 0L : property.constraint.bit();
+    }
+
+    @Override
+    public void checkRequired(long seen) {
+      Constraint.checkRequired(required, seen, beanClass);
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      try {
+        return constructor.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    public void populate(Object bean, String key, Object value) {
+      var property = findProperty(key);
       if (property == null) {
-        throw new IllegalStateException("unknown key " + key + " for bean " + constructor.getDeclaringClass().getName());
+        return;
+      }
+      if (property.constraint != null) {
+        property.constraint.check(value);
+      }
+      try {
+        property.setter.invokeExact(bean, value);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    public Object finish(Object bean) {
+      return bean;
+    }
+  }
+
+  private record Component(Type type, int index, Constraint constraint) {}
+
+  private record RecordData(Class<?> recordClass, MethodHandle constructor, MethodHandle[] accessors, KeyTable<Component> keyTable,
+                            Object[] defaultValues, boolean ignoreUnknownKeys, Constraint[] required) implements ClassData {
+    /**
+     * Returns the component of the key or {@code null} if the key is unknown and the unknown keys are ignored.
+     */
+    Component findComponent(String key) {
+      var component = key == null ? null : keyTable.get(key);
+      if (component == null && (key == null || !ignoreUnknownKeys)) {
+        throw new IllegalStateException("unknown key " + key + " for record " + recordClass.getName());
+      }
+      return component;
+    }
+
+    @Override
+    public Type findType(String key) {
+      var component = findComponent(key);
+      return component == null ? UNKNOWN_KEY_TYPE : component.type;
+    }
+
+    @Override
+    public boolean hasRequiredKeys() {
+      return required.length != 0;
+    }
+
+    @Override
+    public long requiredBit(String key) {
+      var component = keyTable.get(key);
+      return component == null || component.constraint == null ? 0L : component.constraint.bit();
+    }
+
+    @Override
+    public void checkRequired(long seen) {
+      Constraint.checkRequired(required, seen, recordClass);
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      var array = pool == null ? new Object[defaultValues.length] : pool.get(depth, defaultValues.length);
+      System.arraycopy(defaultValues, 0, array, 0, defaultValues.length);
+      return array;
+    }
+
+    @Override
+    public void populate(Object array, String key, Object value) {
+      var component = findComponent(key);
+      if (component == null) {
+        return;
+      }
+      if (component.constraint != null) {
+        component.constraint.check(value);
+      }
+      ((Object[]) array)[component.index] = value;
+    }
+
+    /**
+     * Copies the component values of a record into an array of component values.
+     */
+    void copyComponents(Object record, Object[] array) {
+      for(var i = 0; i < accessors.length; i++) {
+        try {
+          array[i] = accessors[i].invokeExact(record);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new UndeclaredThrowableException(e);
+        }
+      }
+    }
+
+    @Override
+    public Object finish(Object array) {
+      try {
+        return constructor.invokeExact((Object[]) array);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+  }
+
+  private static Object coerce(MethodHandle coercion, Object value) {
+    if (coercion == null) {
+      return value;
+    }
+    try {
+      return coercion.invokeExact(value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  private static MethodHandle genericCoercion(Type type) {
+    var coercion = Coercions.coercion(Utils.erase(type), null);
+    return coercion == null ? null : coercion.asType(methodType(Object.class, Object.class));
+  }
+
+  private record CollectionData(Type elementType, MethodHandle coercion, Supplier<? extends Collection<Object>> factory,
+                                Function<? super Collection<Object>, ?> finisher) implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      return elementType;
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return factory.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void populate(Object collection, String key, Object value) {
+      ((Collection<Object>) collection).add(coerce(coercion, value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object finish(Object collection) {
+      return finisher.apply((Collection<Object>) collection);
+    }
+  }
+
+  private record MapData(Type valueType, MethodHandle coercion) implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      return valueType;
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return new LinkedHashMap<String, Object>();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void populate(Object map, String key, Object value) {
+      if (key == null) {
+        throw new IllegalStateException("expect an object for a map of " + valueType.getTypeName());
+      }
+      ((Map<String, Object>) map).put(key, coerce(coercion, value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object finish(Object map) {
+      return Collections.unmodifiableMap((Map<String, Object>) map);
+    }
+  }
+
+  private record ArrayData(Type componentType, Class<?> componentClass, MethodHandle coercion) implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      return componentType;
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void populate(Object list, String key, Object value) {
+      ((List<Object>) list).add(coerce(coercion, value));
+    }
+
+    @Override
+    public Object finish(Object list) {
+      var elements = (List<?>) list;
+      return elements.toArray((Object[]) Array.newInstance(componentClass, elements.size()));
+    }
+  }
+
+  private record PrimitiveArrayData(Class<?> componentType) implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      throw new IllegalStateException("invalid element for an array of " + componentType.getName());
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return new PrimitiveBuffer(componentType);
+    }
+
+    @Override
+    public void populate(Object buffer, String key, Object value) {
+      ((PrimitiveBuffer) buffer).add(value);
+    }
+
+    @Override
+    public void populateInt(Object buffer, String key, int value) {
+      ((PrimitiveBuffer) buffer).add(value);
+    }
+
+    @Override
+    public void populateDouble(Object buffer, String key, double value) {
+      ((PrimitiveBuffer) buffer).add(value);
+    }
+
+    @Override
+    public Object finish(Object buffer) {
+      return ((PrimitiveBuffer) buffer).toArray();
+    }
+  }
+
+  private record BuilderData<T>(ObjectBuilder<T> objectBuilder) implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      return objectBuilder.typeProvider().apply(key);
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return objectBuilder.supplier().get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void populate(Object data, String key, Object value) {
+      objectBuilder.populater().populate((T) data, key, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object finish(Object data) {
+      return objectBuilder.finisher().apply((T) data);
+    }
+  }
+
+  /**
+   * Skips the object or the array of an unknown key.
+   */
+  private record SkipData() implements ClassData {
+    @Override
+    public KeyTable<?> keyTable() {
+      return KeyTable.of(Map.of());
+    }
+
+    @Override
+    public Type findType(String key) {
+      return UNKNOWN_KEY_TYPE;
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      return null;
+    }
+
+    @Override
+    public void populate(Object data, String key, Object value) {
+      // empty
+    }
+
+    @Override
+    public Object finish(Object data) {
+      return null;
+    }
+  }
+
+  /**
+   * A sealed interface, the concrete type of a JSON object is selected by the value of the discriminator key,
+   * the object is bound by the {@link BindingVisitor} with the class data of the concrete type.
+   */
+  private record PolymorphicData(Class<?> sealedType, String discriminator, Map<String, Class<?>> subtypes,
+                                 KeyTable<?> keyTable) implements ClassData {
+    Class<?> subtype(Object name) {
+      var subtype = name instanceof String s ? subtypes.get(s) : null;
+      if (subtype == null) {
+        throw new IllegalStateException("unknown type " + name + " for " + sealedType.getName() + ", expect one of " + subtypes.keySet());
+      }
+      return subtype;
+    }
+
+    @Override
+    public Type findType(String key) {
+      throw new AssertionError();
+    }
+
+    @Override
+    public Object newData(ArrayPool pool, int depth) {
+      throw new IllegalStateException("a polymorphic type " + sealedType.getName() + " can only be decoded by parseJSON or parseCBOR");
+    }
+
+    @Override
+    public void populate(Object data, String key, Object value) {
+      throw new AssertionError();
+    }
+
+    @Override
+    public Object finish(Object data) {
+      throw new AssertionError();
+    }
+  }
+
+  private record TypeProvider(ClassData classData) implements Function<String, Type> {
+    @Override
+    public Type apply(String key) {
+      return classData.findType(key);
+    }
+  }
+
+  private record Finisher(ClassData classData) implements Function<Object, Object> {
+    @Override
+    public Object apply(Object data) {
+      return classData.finish(data);
+    }
+  }
+
+  private static ObjectBuilder<Object> objectBuilder(ClassData classData) {
+    return new ObjectBuilder<>(new TypeProvider(classData), classData, classData, new Finisher(classData));
+  }
+
+  private static ClassData classData(ObjectBuilder<?> objectBuilder) {
+    if (objectBuilder.supplier() instanceof ClassData classData
+        && objectBuilder.populater() == classData
+        && objectBuilder.typeProvider() instanceof TypeProvider(var typeProviderData) && typeProviderData == classData
+        && objectBuilder.finisher() instanceof Finisher(var finisherData) && finisherData == classData) {
+      return classData;
+    }
+    return new BuilderData<>(objectBuilder);
+  }
+
+  /**
+   * Describes how to decode a JSON object or a JSON array.
+   *
+   * @param typeProvider returns the type of the value of a key
+   * @param supplier creates a temporary object
+   * @param populater inserts a key/value into the temporary object
+   * @param finisher transforms the temporary object into the final object
+   * @param <T> the type of the temporary object
+   */
+  public record ObjectBuilder<T>(Function<? super String, ? extends Type> typeProvider,
+                                 Supplier<? extends T> supplier,
+                                 Populater<? super T> populater,
+                                 Function<? super T, ?> finisher) {
+    public interface Populater<T> {
+      void populate(T instance, String key, Object value);
+    }
+
+    public ObjectBuilder {
+      Objects.requireNonNull(typeProvider);
+      Objects.requireNonNull(supplier);
+      Objects.requireNonNull(populater);
+      Objects.requireNonNull(finisher);
+    }
+
+    /**
+     * Returns an object builder that creates a Java bean with its default constructor
+     * and populates it by calling the setters.
+     *
+     * @param beanClass the class of the bean
+     * @return an object builder of Java beans
+     */
+    public static ObjectBuilder<Object> bean(Class<?> beanClass) {
+      Objects.requireNonNull(beanClass);
+      return objectBuilder(BEAN_DATA_CLASS_VALUE.get(beanClass));
+    }
+
+    /**
+     * Returns an object builder that creates an unmodifiable list,
+     * the elements are inserted as they are, without any conversion.
+     *
+     * @param elementType the type of the elements
+     * @return an object builder of lists
+     */
+    @SuppressWarnings("unchecked")
+    public static ObjectBuilder<List<Object>> list(Type elementType) {
+      Objects.requireNonNull(elementType);
+      var listData = new CollectionData(elementType, null, ArrayList::new, list -> Collections.unmodifiableList((List<Object>) list));
+      return (ObjectBuilder<List<Object>>) (ObjectBuilder<?>) objectBuilder(listData);
+    }
+
+    /**
+     * Returns an object builder that stores the component values into an array
+     * and creates the record with its canonical constructor.
+     *
+     * @param recordClass the class of the record
+     * @return an object builder of records
+     */
+    @SuppressWarnings("unchecked")
+    public static ObjectBuilder<Object[]> record(Class<?> recordClass) {
+      Objects.requireNonNull(recordClass);
+      if (!recordClass.isRecord()) {
+        throw new IllegalArgumentException("not a record " + recordClass.getName());
+      }
+      return (ObjectBuilder<Object[]>) (ObjectBuilder<?>) objectBuilder(RECORD_DATA_CLASS_VALUE.get(recordClass));
+    }
+  }
+
+  /**
+   * Returns an object builder for a type if the type is recognized.
+   */
+  @FunctionalInterface
+  public interface TypeMatcher {
+    Optional<ObjectBuilder<?>> match(Type type);
+  }
+
+  /**
+   * Arrays of component values recycled by parse depth,
+   * the values are copied by the canonical constructor so an array can be reused once the record is created.
+   */
+  private static final class ArrayPool {
+    private Object[][] arrays = new Object[8][];
+
+    Object[] get(int depth, int length) {
+      if (depth >= arrays.length) {
+        arrays = Arrays.copyOf(arrays, Math.max(depth + 1, arrays.length << 1));
+      }
+      var array = arrays[depth];
+      if (array == null || array.length != length) {
+        array = arrays[depth] = new Object[length];
+      }
+      return array;
+    }
+  }
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static MethodHandle unreflectConstructor(Class<?> beanClass) {
+    try {
+      return LOOKUP.unreflectConstructor(Utils.defaultConstructor(beanClass))
+          .asType(methodType(Object.class));
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      return LOOKUP.unreflect(method);
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+  }
+
+  private static Property property(BeanProperty property, List<Constraint> required) {
+    var setter = property.setter();
+    var mh = unreflect(setter);
+    var coercion = Coercions.coercion(setter.getParameterTypes()[0], property.key());
+    if (coercion != null) {
+      mh = MethodHandles.filterArguments(mh, 1, coercion);
+    }
+    var getter = property.getter();
+    return new Property(setter.getGenericParameterTypes()[0],
+        mh.asType(methodType(void.class, Object.class, Object.class)),
+        getter == null ? null : unreflect(getter).asType(methodType(Object.class, Object.class)),
+        Constraint.of(property.key(), setter, required));
+  }
+
+  private static boolean ignoreUnknownKeys(Class<?> type) {
+    var annotation = type.getAnnotation(JSONUnknownKeys.class);
+    return annotation != null && annotation.value() == JSONUnknownKeys.Policy.IGNORE;
+  }
+
+  private static BeanData beanData(Class<?> beanClass) {
+    var required = new ArrayList<Constraint>();
+    var propertyMap = BeanProperty.properties(beanClass).stream()
+        .filter(property -> property.setter() != null)
+        .collect(toMap(BeanProperty::key, property -> property(property, required)));
+    return new BeanData(beanClass, unreflectConstructor(beanClass), KeyTable.of(propertyMap),
+        ignoreUnknownKeys(beanClass), required.toArray(Constraint[]::new));
+  }
+
+  private static String componentKey(RecordComponent component) {
+    var annotation = component.getAnnotation(JSONProperty.class);
+    return annotation == null ? component.getName() : annotation.value();
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return null;
+    }
+    if (type == boolean.class) {
+      return false;
+    }
+    if (type == char.class) {
+      return '\0';
+    }
+    return 0;  // coerced to the numeric type by the constructor
+  }
+
+  private static MethodHandle unreflectCanonicalConstructor(Class<?> recordClass, RecordComponent[] components) {
+    MethodHandle mh;
+    try {
+      mh = LOOKUP.unreflectConstructor(Utils.canonicalConstructor(recordClass, components));
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+    for(var i = 0; i < components.length; i++) {
+      var coercion = Coercions.coercion(components[i].getType(), componentKey(components[i]));
+      if (coercion != null) {
+        mh = MethodHandles.filterArguments(mh, i, coercion);
+      }
+    }
+    return mh.asType(mh.type().generic()).asSpreader(Object[].class, components.length);
+  }
+
+  private static RecordData recordData(Class<?> recordClass) {
+    var components = recordClass.getRecordComponents();
+    var required = new ArrayList<Constraint>();
+    var componentMap = IntStream.range(0, components.length)
+        .boxed()
+        .collect(toMap(i -> componentKey(components[i]), i -> new Component(components[i].getGenericType(), i,
+            Constraint.of(componentKey(components[i]), components[i], required))));
+    var defaultValues = Arrays.stream(components)
+        .map(component -> defaultValue(component.getType()))
+        .toArray();
+    var accessors = Arrays.stream(components)
+        .map(component -> unreflect(component.getAccessor()).asType(methodType(Object.class, Object.class)))
+        .toArray(MethodHandle[]::new);
+    return new RecordData(recordClass, unreflectCanonicalConstructor(recordClass, components), accessors, KeyTable.of(componentMap),
+        defaultValues, ignoreUnknownKeys(recordClass), required.toArray(Constraint[]::new));
+  }
+
+  private static void collectSubtypes(Class<?> type, Map<String, Class<?>> subtypes) {
+    for(var subtype : type.getPermittedSubclasses()) {
+      if (subtype.isInterface() || Modifier.isAbstract(subtype.getModifiers())) {
+        if (subtype.isSealed()) {
+          collectSubtypes(subtype, subtypes);
+        }
+        continue;
+      }
+      var annotation = subtype.getAnnotation(JSONTypeName.class);
+      var name = annotation == null ? subtype.getSimpleName() : annotation.value();
+      var previous = subtypes.putIfAbsent(name, subtype);
+      if (previous != null && previous != subtype) {
+        throw new IllegalStateException("type name " + name + " used by both " + previous.getName() + " and " + subtype.getName());
       }
-      return property;
     }
   }
 
+  private static PolymorphicData polymorphicData(Class<?> sealedType) {
+    var annotation = sealedType.getAnnotation(JSONDiscriminator.class);
+    var discriminator = annotation == null ? "type" : annotation.value();
+    var subtypes = new LinkedHashMap<String, Class<?>>();
+    collectSubtypes(sealedType, subtypes);
+    return new PolymorphicData(sealedType, discriminator, Collections.unmodifiableMap(subtypes),
+        KeyTable.of(Map.of(discriminator, discriminator)));
+  }
+
   private static final ClassValue<BeanData> BEAN_DATA_CLASS_VALUE = new ClassValue<>() {
     @Override
     protected BeanData computeValue(Class<?> type) {
-      throw new UnsupportedOperationException("TODO");
+      return beanData(type);
+    }
+  };
+
+  private static final ClassValue<RecordData> RECORD_DATA_CLASS_VALUE = new ClassValue<>() {
+    @Override
+    protected RecordData computeValue(Class<?> type) {
+      return recordData(type);
+    }
+  };
+
+  private static final ClassValue<PolymorphicData> POLYMORPHIC_DATA_CLASS_VALUE = new ClassValue<>() {
+    @Override
+    protected PolymorphicData computeValue(Class<?> type) {
+      return polymorphicData(type);
     }
   };
 
-  public Object parseJSON(String text, Class<?> beanClass) {
+  private static Type typeArgument(Type type, int index) {
+    if (type instanceof ParameterizedType parameterizedType) {
+      return parameterizedType.getActualTypeArguments()[index];
+    }
+    return Object.class;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ClassData defaultClassData(Type type) {
+    var rawType = Utils.erase(type);
+    if (rawType.isArray()) {
+      var componentType = type instanceof GenericArrayType genericArrayType ?
+          genericArrayType.getGenericComponentType() : rawType.getComponentType();
+      var componentClass = rawType.getComponentType();
+      if (componentClass.isPrimitive()) {
+        return new PrimitiveArrayData(componentClass);
+      }
+      return new ArrayData(componentType, componentClass, genericCoercion(componentType));
+    }
+    if (rawType == List.class || rawType == Collection.class || rawType == Iterable.class) {
+      var elementType = typeArgument(type, 0);
+      return new CollectionData(elementType, genericCoercion(elementType), ArrayList::new, list -> Collections.unmodifiableList((List<Object>) list));
+    }
+    if (rawType == Set.class) {
+      var elementType = typeArgument(type, 0);
+      return new CollectionData(elementType, genericCoercion(elementType), LinkedHashSet::new, set -> Collections.unmodifiableSet((Set<Object>) set));
+    }
+    if (rawType == Map.class) {
+      var keyType = typeArgument(type, 0);
+      if (keyType != Object.class && Utils.erase(keyType) != String.class) {
+        throw new IllegalStateException("only maps with string keys are supported " + type.getTypeName());
+      }
+      var valueType = typeArgument(type, 1);
+      return new MapData(valueType, genericCoercion(valueType));
+    }
+    if (rawType.isSealed() && (rawType.isInterface() || Modifier.isAbstract(rawType.getModifiers()))) {
+      return POLYMORPHIC_DATA_CLASS_VALUE.get(rawType);
+    }
+    return rawType.isRecord() ? RECORD_DATA_CLASS_VALUE.get(rawType) : BEAN_DATA_CLASS_VALUE.get(rawType);
+  }
+
+  // an Object is decoded as a list or a map depending on the JSON value
+  private static final ClassData OBJECT_LIST_DATA =
+      new CollectionData(Object.class, null, ArrayList::new, list -> Collections.unmodifiableList((List<Object>) list));
+  private static final ClassData OBJECT_MAP_DATA = new MapData(Object.class, null);
+
+  // the type of an unknown key when the unknown keys are ignored
+  private static final Type UNKNOWN_KEY_TYPE = SkipData.class;
+  private static final ClassData SKIP_DATA = new SkipData();
+
+  /**
+   * A configuration and the class data computed with it.
+   * A snapshot is read once per document and replaced, never mutated, when the reader is reconfigured.
+   */
+  private record Snapshot(MapperConfig config, ConcurrentHashMap<Type, ClassData> classDataCache) {
+    private Snapshot(MapperConfig config) {
+      this(config, new ConcurrentHashMap<>());
+    }
+
+    private ClassData findClassData(Type type) {
+      return config.typeMatchers().reversed().stream()
+          .flatMap(typeMatcher -> typeMatcher.match(type).stream())
+          .findFirst()
+          .map(JSONReader::classData)
+          .orElseGet(() -> defaultClassData(type));
+    }
+
+    private ClassData resolve(Type type) {
+      return classDataCache.computeIfAbsent(type, this::findClassData);
+    }
+
+    private ClassData resolve(Type type, boolean array) {
+      if (type == Object.class) {
+        return array ? OBJECT_LIST_DATA : OBJECT_MAP_DATA;
+      }
+      var classData = type == UNKNOWN_KEY_TYPE ? SKIP_DATA : resolve(type);
+      if (!array && (classData instanceof CollectionData || classData instanceof ArrayData || classData instanceof PrimitiveArrayData)) {
+        // the members of an object would be added as elements, their keys being lost
+        throw new IllegalStateException("expect an array but found an object");
+      }
+      return classData;
+    }
+
+    private String string(String input, int start, int end) {
+      var stringCache = config.stringCache();
+      return stringCache == null ? null : stringCache.get(input, start, end);
+    }
+  }
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Creates a reader with the default configuration.
+   */
+  public JSONReader() {
+    this(MapperConfig.DEFAULT);
+  }
+
+  /**
+   * Creates a reader with a configuration.
+   * A reader can be shared by several threads.
+   *
+   * @param config the configuration of the reader
+   */
+  public JSONReader(MapperConfig config) {
+    Objects.requireNonNull(config);
+    snapshot = new Snapshot(config);
+  }
+
+  /**
+   * Returns the current configuration.
+   * @return the current configuration.
+   */
+  public MapperConfig config() {
+    return snapshot.config;
+  }
+
+  // the documents being read keep the old snapshot, the lock only serializes the reconfigurations
+  private synchronized void reconfigure(Consumer<MapperConfig.Builder> action) {
+    var builder = snapshot.config.toBuilder();
+    action.accept(builder);
+    snapshot = new Snapshot(builder.build());
+  }
+
+  /**
+   * Uses the {@link IndexedJSONParser}, that first computes an index of the structural characters
+   * by blocks of 64 characters, instead of the {@link ToyJSONParser}.
+   *
+   * @param indexedParser true to use the indexed parser
+   *
+   * @see MapperConfig.Builder#useIndexedParser(boolean)
+   */
+  public void useIndexedParser(boolean indexedParser) {
+    reconfigure(builder -> builder.useIndexedParser(indexedParser));
+  }
+
+  /**
+   * Uses a bounded cache of canonical strings, so a string value repeated in the JSON texts,
+   * like a country code or a status, is allocated once and shared by the decoded objects.
+   * Only the strings without escape sequence and with at most 32 characters are cached,
+   * a string replaces the previous string of its slot.
+   *
+   * @param capacity the number of strings of the cache or 0 to not use a cache
+   * @throws IllegalArgumentException if the capacity is negative or greater than 2^30
+   *
+   * @see MapperConfig.Builder#useStringCache(int)
+   */
+  public void useStringCache(int capacity) {
+    reconfigure(builder -> builder.useStringCache(capacity));
+  }
+
+  /**
+   * Uses limits to reject the JSON texts or the CBOR data with objects or arrays too deeply nested
+   * or too large, strings or numbers too long, by default {@link JSONLimits#DEFAULT}.
+   * If the maximum depth is greater than what the recursive parser can safely handle,
+   * the JSON parser uses an explicit stack instead, the CBOR parser is always limited
+   * to a depth of {@value CBORParser#MAX_DEPTH}.
+   *
+   * @param limits the limits checked when parsing a JSON text or CBOR data
+   *
+   * @see MapperConfig.Builder#useLimits(JSONLimits)
+   */
+  public void useLimits(JSONLimits limits) {
+    Objects.requireNonNull(limits);
+    reconfigure(builder -> builder.useLimits(limits));
+  }
+
+  /**
+   * Records the metrics of the documents read by this reader, or stops recording them.
+   * The root type of a document is the type requested, or the class of the instance
+   * for {@link #parseInto(String, Object)} and {@link #merge(String, Object)}.
+   *
+   * @param metrics the metrics or {@code null}
+   *
+   * @see MapperConfig.Builder#useMetrics(MapperMetrics)
+   */
+  public void useMetrics(MapperMetrics metrics) {
+    reconfigure(builder -> builder.useMetrics(metrics));
+  }
+
+  /**
+   * Adds a type matcher, the type matchers are called in the reverse order of the insertion order
+   * and if no type matcher recognizes a type, the type is decoded as a list, a set, a map, an array,
+   * a record or a Java bean.
+   * The type matchers are called once per type, the result is cached.
+   *
+   * @param typeMatcher a type matcher
+   *
+   * @see MapperConfig.Builder#addTypeMatcher(TypeMatcher)
+   */
+  public void addTypeMatcher(TypeMatcher typeMatcher) {
+    Objects.requireNonNull(typeMatcher);
+    reconfigure(builder -> builder.addTypeMatcher(typeMatcher));
+  }
+
+  private static final class Context {
+    private final ClassData classData;
+    private final Object data;
+    private long seen;  // the bits of the required keys seen
+
+    private Context(ClassData classData, Object data) {
+      this.classData = classData;
+      this.data = data;
+    }
+
+    private void seen(String key) {
+      if (classData.hasRequiredKeys()) {
+        seen |= classData.requiredBit(key);
+      }
+    }
+
+    private Object finish() {
+      classData.checkRequired(seen);
+      return classData.finish(data);
+    }
+  }
+
+  /**
+   * A type reference captures a type argument, the type argument is recorded by the compiler
+   * when creating an anonymous class.
+   * <pre>
+   *   var type = new TypeReference&lt;List&lt;Person&gt;&gt;() {};
+   * </pre>
+   *
+   * @param <T> the type captured
+   */
+  @SuppressWarnings("unused")
+  public interface TypeReference<T> { }
+
+  public <T> T parseJSON(String text, Class<T> beanClass) {
+    return beanClass.cast(parseJSON(text, (Type) beanClass));
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T parseJSON(String text, TypeReference<T> typeReference) {
+    Objects.requireNonNull(typeReference);
+    var genericInterface = (ParameterizedType) typeReference.getClass().getGenericInterfaces()[0];
+    return (T) parseJSON(text, genericInterface.getActualTypeArguments()[0]);
+  }
+
+  /**
+   * The events of a polymorphic object recorded until the discriminator key is found,
+   * only the members before the discriminator are recorded.
+   */
+  private static final class Lookahead {
+    private final PolymorphicData polymorphicData;
+    private final ArrayList<Consumer<ToyJSONParser.JSONVisitor>> events = new ArrayList<>();
+    private int depth;  // the depth of the objects and the arrays inside the polymorphic object
+
+    private Lookahead(PolymorphicData polymorphicData) {
+      this.polymorphicData = polymorphicData;
+    }
+
+    private boolean isDiscriminator(String key) {
+      return depth == 0 && polymorphicData.discriminator.equals(key);
+    }
+  }
+
+  /**
+   * Creates the objects of a type from the events of a parser.
+   * The concrete type of a polymorphic object is selected when its discriminator key is found,
+   * if the discriminator is not the first key, the events before it are recorded and replayed
+   * once the concrete type is known.
+   */
+  private static final class BindingVisitor implements ToyJSONParser.JSONVisitor {
+    private final Snapshot snapshot;
+    private final Type expectedType;
+    private final ArrayDeque<Context> stack = new ArrayDeque<>();
+    private final ArrayPool pool = new ArrayPool();
+    private Lookahead lookahead;  // not null if the discriminator of a polymorphic object is not yet known
+    private Object result;
+
+    private BindingVisitor(Snapshot snapshot, Type expectedType) {
+      this.snapshot = snapshot;
+      this.expectedType = expectedType;
+    }
+
+    @Override
+    public String key(String input, int start, int end) {
+      if (lookahead != null) {
+        return lookahead.depth == 0 ? lookahead.polymorphicData.keyTable.key(input, start, end) : null;
+      }
+      return stack.peek().classData.keyTable().key(input, start, end);
+    }
+
+    @Override
+    public String string(String input, int start, int end) {
+      return snapshot.string(input, start, end);
+    }
+
+    private void record(String key, Object value, Consumer<ToyJSONParser.JSONVisitor> event) {
+      if (lookahead.isDiscriminator(key)) {
+        select(value);
+        return;
+      }
+      lookahead.events.add(event);
+    }
+
+    // the concrete type is known, binds the recorded events
+    private void select(Object name) {
+      var subtype = lookahead.polymorphicData.subtype(name);
+      var events = lookahead.events;
+      lookahead = null;
+      var classData = snapshot.resolve(subtype);
+      stack.push(new Context(classData, classData.newData(pool, stack.size())));
+      for(var event : events) {
+        event.accept(this);
+      }
+    }
+
+    @Override
+    public void value(String key, Object value) {
+      if (lookahead != null) {
+        record(key, value, visitor -> visitor.value(key, value));
+        return;
+      }
+      var context = stack.peek();
+      context.classData.populate(context.data, key, value);
+      context.seen(key);
+    }
+
+    @Override
+    public void intValue(String key, int value) {
+      if (lookahead != null) {
+        record(key, value, visitor -> visitor.intValue(key, value));
+        return;
+      }
+      var context = stack.peek();
+      context.classData.populateInt(context.data, key, value);
+      context.seen(key);
+    }
+
+    @Override
+    public void doubleValue(String key, double value) {
+      if (lookahead != null) {
+        record(key, value, visitor -> visitor.doubleValue(key, value));
+        return;
+      }
+      var context = stack.peek();
+      context.classData.populateDouble(context.data, key, value);
+      context.seen(key);
+    }
+
+    private void start(String key, boolean array) {
+      if (lookahead != null) {
+        lookahead.depth++;
+        lookahead.events.add(array ? visitor -> visitor.startArray(key) : visitor -> visitor.startObject(key));
+        return;
+      }
+      var context = stack.peek();
+      var type = context == null ? expectedType : context.classData.findType(key);
+      var classData = snapshot.resolve(type, array);
+      if (classData instanceof PolymorphicData polymorphicData) {
+        if (array) {
+          throw new IllegalStateException("expect an object for " + polymorphicData.sealedType.getName());
+        }
+        lookahead = new Lookahead(polymorphicData);
+        return;
+      }
+      stack.push(new Context(classData, classData.newData(pool, stack.size())));
+    }
+
+    private void end(String key, boolean array) {
+      if (lookahead != null) {
+        if (lookahead.depth == 0) {
+          var polymorphicData = lookahead.polymorphicData;
+          throw new IllegalStateException("missing key " + polymorphicData.discriminator + " for " + polymorphicData.sealedType.getName());
+        }
+        lookahead.depth--;
+        lookahead.events.add(array ? visitor -> visitor.endArray(key) : visitor -> visitor.endObject(key));
+        return;
+      }
+      var context = stack.pop();
+      var instance = context.finish();
+      if (stack.isEmpty()) {
+        result = instance;
+        return;
+      }
+      value(key, instance);
+    }
+
+    @Override
+    public void startObject(String key) {
+      start(key, false);
+    }
+
+    @Override
+    public void endObject(String key) {
+      end(key, false);
+    }
+
+    @Override
+    public void startArray(String key) {
+      start(key, true);
+    }
+
+    @Override
+    public void endArray(String key) {
+      end(key, true);
+    }
+  }
+
+  public Object parseJSON(String text, Type expectedType) {
     Objects.requireNonNull(text);
-    Objects.requireNonNull(beanClass);
-    var visitor = new ToyJSONParser.JSONVisitor() {
-      private BeanData beanData;
-      private Object result;
+    Objects.requireNonNull(expectedType);
+    var snapshot = this.snapshot;
+    var visitor = new BindingVisitor(snapshot, expectedType);
+    parse(snapshot.config, text, expectedType, visitor);
+    return visitor.result;
+  }
 
-      @Override
-      public void value(String key, Object value) {
-        // call the corresponding setter on result
-        throw new UnsupportedOperationException("TODO");
+  private static void parse(MapperConfig config, String text, Type rootType, ToyJSONParser.JSONVisitor visitor) {
+    parse(config, text, 0, text.length(), rootType, visitor);
+  }
+
+  private static void parse(MapperConfig config, String text, int start, int end, Type rootType, ToyJSONParser.JSONVisitor visitor) {
+    var metrics = config.metrics();
+    var time = metrics == null ? 0L : System.nanoTime();
+    var limits = config.limits();
+    if (config.indexedParser()) {
+      IndexedJSONParser.parse(text, start, end, visitor, limits);
+    } else if (limits.maxDepth() <= ToyJSONParser.MAX_RECURSIVE_DEPTH) {
+      ToyJSONParser.parse(text, start, end, visitor, limits);
+    } else {
+      ToyJSONParser.parseIterative(text, start, end, visitor, limits);
+    }
+    if (metrics != null) {
+      metrics.recordRead(rootType, end - start, System.nanoTime() - time);
+    }
+  }
+
+  public <T> T parseCBOR(byte[] data, Class<T> beanClass) {
+    return beanClass.cast(parseCBOR(data, (Type) beanClass));
+  }
+
+  /**
+   * Decodes CBOR data (RFC 8949), a CBOR map or a CBOR array, the same way a JSON text is decoded
+   * by {@link #parseJSON(String, Type)}.
+   *
+   * @param data the CBOR data
+   * @param expectedType the type of the decoded value
+   * @return the decoded value
+   *
+   * @see CBORWriter
+   */
+  public Object parseCBOR(byte[] data, Type expectedType) {
+    Objects.requireNonNull(data);
+    Objects.requireNonNull(expectedType);
+    var snapshot = this.snapshot;
+    var visitor = new BindingVisitor(snapshot, expectedType);
+    var metrics = snapshot.config.metrics();
+    var start = metrics == null ? 0L : System.nanoTime();
+    CBORParser.parse(data, visitor, snapshot.config.limits());
+    if (metrics != null) {
+      metrics.recordRead(expectedType, data.length, System.nanoTime() - start);
+    }
+    return visitor.result;
+  }
+
+  /**
+   * Binds a JSON object into an existing object graph.
+   * Each frame of the stack is either a bean or a list updated in place, or a temporary object
+   * of a {@link ClassData} that is finished when the JSON object or array ends.
+   *
+   * In merge mode, the lists are not updated in place but replaced, the temporary object of a record
+   * or a map is initialized with the values of the existing record or map and a {@code null} removes
+   * the value of a key.
+   */
+  private static final class InPlaceBinder implements ToyJSONParser.JSONVisitor {
+    private final Snapshot snapshot;
+    private final Object root;
+    private final ClassData rootData;
+    private final boolean merge;
+    private final ArrayPool pool = new ArrayPool();
+    private ClassData[] classDatas = new ClassData[8];
+    private Object[] datas = new Object[8];
+    private boolean[] inPlaces = new boolean[8];
+    private int[] indexes = new int[8];
+    private int depth;
+    private Object result;
+
+    private InPlaceBinder(Snapshot snapshot, Object root, ClassData rootData, boolean merge) {
+      this.snapshot = snapshot;
+      this.root = root;
+      this.rootData = rootData;
+      this.merge = merge;
+    }
+
+    private void push(ClassData classData, Object data, boolean inPlace) {
+      if (depth == datas.length) {
+        classDatas = Arrays.copyOf(classDatas, depth << 1);
+        datas = Arrays.copyOf(datas, depth << 1);
+        inPlaces = Arrays.copyOf(inPlaces, depth << 1);
+        indexes = Arrays.copyOf(indexes, depth << 1);
       }
+      classDatas[depth] = classData;
+      datas[depth] = data;
+      inPlaces[depth] = inPlace;
+      indexes[depth++] = 0;
+    }
 
-      @Override
-      public void startObject(String key) {
-        //get the beanData and store it in the field
-        //create an instance and store it in result
-        throw new UnsupportedOperationException("TODO");
+    private boolean isInPlaceList(int frame) {
+      return inPlaces[frame] && classDatas[frame] instanceof CollectionData;
+    }
+
+    // the value currently stored at the position of the key in the enclosing bean or list,
+    // or in merge mode, in the enclosing record or map
+    private Object existing(int frame, String key) {
+      if (merge) {
+        switch (classDatas[frame]) {
+          case RecordData recordData -> {
+            var component = recordData.findComponent(key);
+            return component == null ? null : ((Object[]) datas[frame])[component.index];
+          }
+          case MapData mapData -> {
+            return ((Map<?, ?>) datas[frame]).get(key);
+          }
+          default -> {}
+        }
       }
+      if (!inPlaces[frame]) {
+        return null;
+      }
+      if (classDatas[frame] instanceof BeanData beanData) {
+        var property = beanData.findProperty(key);
+        return property == null ? null : property.get(datas[frame]);
+      }
+      var list = (List<?>) datas[frame];
+      var index = indexes[frame];
+      return index < list.size() ? list.get(index) : null;
+    }
 
-      @Override
-      public void endObject(String key) {
-        // do nothing
+    @Override
+    public String key(String input, int start, int end) {
+      return classDatas[depth - 1].keyTable().key(input, start, end);
+    }
+
+    @Override
+    public String string(String input, int start, int end) {
+      return snapshot.string(input, start, end);
+    }
+
+    private static void checkNotRequired(Constraint constraint) {
+      if (constraint != null && constraint.bit() != 0) {
+        throw new IllegalStateException("the required key " + constraint.key() + " can not be removed");
+      }
+    }
+
+    // in merge mode, a null removes the value of a key, returns false if the frame is not an object
+    private boolean remove(int frame, String key) {
+      switch (classDatas[frame]) {
+        case BeanData beanData -> {
+          var property = beanData.findProperty(key);
+          if (property != null) {
+            checkNotRequired(property.constraint);
+            beanData.populate(datas[frame], key, defaultValue(Utils.erase(property.type)));
+          }
+          return true;
+        }
+        case RecordData recordData -> {
+          var component = recordData.findComponent(key);
+          if (component != null) {
+            checkNotRequired(component.constraint);
+            ((Object[]) datas[frame])[component.index] = recordData.defaultValues[component.index];
+          }
+          return true;
+        }
+        case MapData mapData -> {
+          ((Map<?, ?>) datas[frame]).remove(key);
+          return true;
+        }
+        default -> {
+          return false;
+        }
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void value(String key, Object value) {
+      var frame = depth - 1;
+      if (merge && value == null && remove(frame, key)) {
+        return;
+      }
+      if (isInPlaceList(frame)) {
+        var list = (List<Object>) datas[frame];
+        var element = coerce(((CollectionData) classDatas[frame]).coercion(), value);
+        var index = indexes[frame]++;
+        if (index < list.size()) {
+          list.set(index, element);
+        } else {
+          list.add(element);
+        }
+        return;
+      }
+      classDatas[frame].populate(datas[frame], key, value);
+    }
+
+    @Override
+    public void intValue(String key, int value) {
+      var frame = depth - 1;
+      if (isInPlaceList(frame)) {
+        value(key, (Object) value);
+        return;
+      }
+      classDatas[frame].populateInt(datas[frame], key, value);
+    }
+
+    @Override
+    public void doubleValue(String key, double value) {
+      var frame = depth - 1;
+      if (isInPlaceList(frame)) {
+        value(key, (Object) value);
+        return;
+      }
+      classDatas[frame].populateDouble(datas[frame], key, value);
+    }
+
+    // in merge mode, a JSON object is merged into the existing bean, record or map, a JSON array replaces the existing value
+    @SuppressWarnings("unchecked")
+    private void startMerge(ClassData classData, Object existing, boolean array) {
+      switch (classData) {
+        case BeanData beanData when !array ->
+            push(beanData, existing != null && existing.getClass() == beanData.beanClass ? existing : beanData.newData(pool, depth), true);
+        case RecordData recordData when !array -> {
+          var components = (Object[]) recordData.newData(pool, depth);
+          if (existing != null && existing.getClass() == recordData.recordClass) {
+            recordData.copyComponents(existing, components);
+          }
+          push(recordData, components, false);
+        }
+        case MapData mapData when !array -> {
+          var map = (Map<String, Object>) mapData.newData(pool, depth);
+          if (existing instanceof Map<?, ?> existingMap) {
+            map.putAll((Map<String, ?>) existingMap);
+          }
+          push(mapData, map, false);
+        }
+        default -> push(classData, classData.newData(pool, depth), false);
+      }
+    }
+
+    private void start(String key, boolean array) {
+      if (depth == 0) {
+        if (array) {
+          throw new IllegalStateException("expect an object for " + root.getClass().getName());
+        }
+        if (merge) {
+          startMerge(rootData, root, false);
+        } else {
+          push(rootData, root, true);
+        }
+        return;
       }
+      var frame = depth - 1;
+      var type = classDatas[frame].findType(key);
+      var classData = snapshot.resolve(type, array);
+      if (merge) {
+        startMerge(classData, array ? null : existing(frame, key), array);
+        return;
+      }
+      if (!inPlaces[frame]) {
+        push(classData, classData.newData(pool, depth), false);
+        return;
+      }
+      var existing = existing(frame, key);
+      if (!array && classData instanceof BeanData beanData) {
+        // a new bean is also updated in place, so its lists are mutable and can be reused next time
+        push(classData, existing != null && existing.getClass() == beanData.beanClass() ? existing : beanData.newData(pool, depth), true);
+        return;
+      }
+      if (array && classData instanceof CollectionData) {
+        if (existing instanceof ArrayList<?> list) {
+          push(classData, list, true);
+          return;
+        }
+        if (Utils.erase(type).isAssignableFrom(ArrayList.class)) {
+          push(classData, new ArrayList<>(), true);
+          return;
+        }
+      }
+      push(classData, classData.newData(pool, depth), false);
+    }
+
+    private void end(String key) {
+      var frame = --depth;
+      var data = datas[frame];
+      datas[frame] = null;
+      if (isInPlaceList(frame)) {
+        // remove the elements of the previous content that were not overwritten
+        var list = (List<?>) data;
+        for(var index = indexes[frame]; list.size() > index;) {
+          list.removeLast();
+        }
+      }
+      var instance = inPlaces[frame] ? data : classDatas[frame].finish(data);
+      if (depth == 0) {
+        result = instance;
+        return;
+      }
+      value(key, instance);
+    }
+
+    @Override
+    public void startObject(String key) {
+      start(key, false);
+    }
+
+    @Override
+    public void endObject(String key) {
+      end(key);
+    }
+
+    @Override
+    public void startArray(String key) {
+      start(key, true);
+    }
+
+    @Override
+    public void endArray(String key) {
+      end(key);
+    }
+  }
+
+  /**
+   * Decodes a JSON object into an existing Java bean instead of creating a new one.
+   * The properties present in the JSON object are overwritten, the other properties are left unchanged.
+   * The nested beans and the {@link ArrayList}s returned by the getters are reused,
+   * a list is refilled from its first element and truncated, and the beans inside a list are also reused,
+   * so decoding messages of the same shape into the same instance does not allocate new beans or lists.
+   * The lists created by this method are mutable {@link ArrayList}s so they can be reused the next time.
+   * The constraints {@link JSONRange} and {@link JSONMaxLength} are checked but not {@link JSONRequired}
+   * because an absent property keeps its value.
+   *
+   * @param text a JSON object
+   * @param instance a Java bean
+   * @return the instance
+   * @param <T> the type of the instance
+   * @throws IllegalArgumentException if the instance is not a Java bean
+   */
+  public <T> T parseInto(String text, T instance) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(instance);
+    var snapshot = this.snapshot;
+    if (!(snapshot.resolve(instance.getClass()) instanceof BeanData beanData)) {
+      throw new IllegalArgumentException("not a Java bean " + instance.getClass().getName());
+    }
+    parse(snapshot.config, text, beanData.beanClass, new InPlaceBinder(snapshot, instance, beanData, false));
+    return instance;
+  }
+
+  /**
+   * Applies a JSON merge patch (RFC 7396) to an existing Java bean or record.
+   * Only the setters of the keys present in the patch are called, so the work is proportional
+   * to the size of the patch, not to the size of the bean.
+   * <ul>
+   *   <li>a key with the value {@code null} clears the property, a primitive property is reset to zero
+   *       or {@code false} and the key of a map is removed, a property annotated with {@link JSONRequired}
+   *       can not be cleared,
+   *   <li>a JSON object is merged recursively into the existing bean, record or map,
+   *       the existing beans are updated in place, a record or a map is copied then patched,
+   *   <li>any other value, including an array, replaces the existing value.
+   * </ul>
+   * As a record can not be updated in place, the patch of a record returns a new record.
+   *
+   * @param patch a JSON merge patch, a JSON object
+   * @param instance a Java bean or a record
+   * @return the instance if it is a Java bean, a new record otherwise
+   * @param <T> the type of the instance
+   * @throws IllegalArgumentException if the instance is not a Java bean or a record
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T merge(String patch, T instance) {
+    Objects.requireNonNull(patch);
+    Objects.requireNonNull(instance);
+    var snapshot = this.snapshot;
+    var classData = snapshot.resolve(instance.getClass());
+    if (!(classData instanceof BeanData) && !(classData instanceof RecordData)) {
+      throw new IllegalArgumentException("not a Java bean or a record " + instance.getClass().getName());
+    }
+    var binder = new InPlaceBinder(snapshot, instance, classData, true);
+    parse(snapshot.config, patch, instance.getClass(), binder);
+    return (T) binder.result;
+  }
+
+  private Stream<Object> bindInParallel(String text, int[] bounds, Type elementType) {
+    // each record is parsed in place, between its bounds, so the text of a record is not copied
+    var snapshot = this.snapshot;
+    return IntStream.range(0, bounds.length >> 1)
+        .parallel()
+        .mapToObj(i -> {
+          var visitor = new BindingVisitor(snapshot, elementType);
+          parse(snapshot.config, text, bounds[i << 1], bounds[(i << 1) + 1], elementType, visitor);
+          return visitor.result;
+        });
+  }
+
+  /**
+   * Decodes a text in the JSON Lines format, each line being a JSON object or a JSON array,
+   * the lines are decoded in parallel and the result list keeps the order of the lines.
+   * Each line is parsed in place in the text, but the whole text has to be in memory
+   * and a {@code String} is limited to {@code Integer.MAX_VALUE} characters,
+   * {@link #streamJSONLines(Reader, Type)} reads a larger text by batches of lines.
+   *
+   * @param text a text in the JSON Lines format
+   * @param elementType the type of each line
+   * @return a list of the decoded lines
+   */
+  public List<Object> parseJSONLines(String text, Type elementType) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementType);
+    return bindInParallel(text, RecordSplitter.lines(text), elementType).toList();
+  }
+
+  public <T> List<T> parseJSONLines(String text, Class<T> elementClass) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementClass);
+    return bindInParallel(text, RecordSplitter.lines(text), elementClass).map(elementClass::cast).toList();
+  }
+
+  /**
+   * Decodes a text in the JSON Lines format in parallel as an unordered stream.
+   *
+   * @param text a text in the JSON Lines format
+   * @param elementType the type of each line
+   * @return an unordered parallel stream of the decoded lines
+   */
+  public Stream<Object> streamJSONLines(String text, Type elementType) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementType);
+    return bindInParallel(text, RecordSplitter.lines(text), elementType).unordered();
+  }
+
+  /**
+   * Number of characters read at once by {@link #streamJSONLines(Reader, Type)}, the whole lines
+   * of a batch are decoded in parallel.
+   */
+  static final int LINES_BATCH_SIZE = 1 << 20;
+
+  /**
+   * Returns a lazy stream of the lines of a text in the JSON Lines format read from a reader,
+   * the blank lines are skipped.
+   * The text is read by batches of about {@value #LINES_BATCH_SIZE} characters, the lines of a batch
+   * are decoded in parallel and the stream keeps the order of the lines. Only the current batch
+   * is kept in memory, so the size of the text is not bounded, and the line reported by an error
+   * is counted from the start of its batch.
+   * The reader is not closed by the stream.
+   *
+   * @param reader a reader of a text in the JSON Lines format
+   * @param elementType the type of each line
+   * @return a lazy sequential stream of the decoded lines
+   */
+  public Stream<Object> streamJSONLines(Reader reader, Type elementType) {
+    return streamJSONLines(reader, elementType, LINES_BATCH_SIZE);
+  }
+
+  Stream<Object> streamJSONLines(Reader reader, Type elementType, int batchSize) {
+    Objects.requireNonNull(reader);
+    Objects.requireNonNull(elementType);
+    var spliterator = new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+      private final char[] buffer = new char[batchSize];
+      private final StringBuilder pending = new StringBuilder();  // the start of a line not fully read
 
       @Override
-      public void startArray(String key) {
-        throw new UnsupportedOperationException("Implemented later");
+      public boolean tryAdvance(Consumer<? super String> action) {
+        for(;;) {
+          int read;
+          try {
+            read = fill(reader, buffer);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          if (read < buffer.length) {
+            // end of the text
+            pending.append(buffer, 0, read);
+            if (pending.isEmpty()) {
+              return false;
+            }
+            var batch = pending.toString();
+            pending.setLength(0);
+            action.accept(batch);
+            return true;
+          }
+          // a batch ends at the last newline, the rest is kept for the next batch
+          var end = read;
+          while (end > 0 && buffer[end - 1] != '\n') {
+            end--;
+          }
+          if (end == 0) {
+            // a line longer than the buffer
+            pending.append(buffer, 0, read);
+            continue;
+          }
+          pending.append(buffer, 0, end);
+          var batch = pending.toString();
+          pending.setLength(0);
+          pending.append(buffer, end, read - end);
+          action.accept(batch);
+          return true;
+        }
+      }
+    };
+    return StreamSupport.stream(spliterator, false)
+        .flatMap(batch -> bindInParallel(batch, RecordSplitter.lines(batch), elementType).toList().stream());
+  }
+
+  private static int fill(Reader reader, char[] buffer) throws IOException {
+    var size = 0;
+    while (size < buffer.length) {
+      var read = reader.read(buffer, size, buffer.length - size);
+      if (read == -1) {
+        break;
       }
+      size += read;
+    }
+    return size;
+  }
+
+  /**
+   * Decodes a JSON array of JSON objects or JSON arrays, the array is first split at the element
+   * boundaries, using a structural index, then the elements are decoded in parallel,
+   * the result list keeps the order of the elements.
+   * Each element is parsed in place in the text, but the whole text has to be in memory
+   * and a {@code String} is limited to {@code Integer.MAX_VALUE} characters,
+   * {@link #stream(Reader, Type)} reads a larger array element by element.
+   *
+   * @param text a JSON array
+   * @param elementType the type of the elements
+   * @return a list of the decoded elements
+   */
+  public List<Object> parseJSONArray(String text, Type elementType) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementType);
+    return bindInParallel(text, RecordSplitter.arrayElements(text), elementType).toList();
+  }
+
+  public <T> List<T> parseJSONArray(String text, Class<T> elementClass) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementClass);
+    return bindInParallel(text, RecordSplitter.arrayElements(text), elementClass).map(elementClass::cast).toList();
+  }
 
+  /**
+   * Decodes a JSON array of JSON objects or JSON arrays in parallel as an unordered stream.
+   *
+   * @param text a JSON array
+   * @param elementType the type of the elements
+   * @return an unordered parallel stream of the decoded elements
+   */
+  public Stream<Object> streamJSONArray(String text, Type elementType) {
+    Objects.requireNonNull(text);
+    Objects.requireNonNull(elementType);
+    return bindInParallel(text, RecordSplitter.arrayElements(text), elementType).unordered();
+  }
+
+  /**
+   * Returns a lazy stream of the elements of a JSON array read from a reader,
+   * each element is a JSON object or a JSON array and is decoded when the stream asks for it.
+   * Only the text of the current element is kept in memory and a short-circuiting operation
+   * like {@code limit()} or {@code findFirst()} stops reading the reader.
+   * The reader is not closed by the stream.
+   *
+   * @param reader a reader of a JSON array
+   * @param elementType the type of the elements
+   * @return a lazy sequential stream of the decoded elements
+   */
+  public Stream<Object> stream(Reader reader, Type elementType) {
+    Objects.requireNonNull(reader);
+    Objects.requireNonNull(elementType);
+    var elementReader = new ArrayElementReader(reader);
+    var spliterator = new Spliterators.AbstractSpliterator<Object>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
       @Override
-      public void endArray(String key) {
-        throw new UnsupportedOperationException("Implemented later");
+      public boolean tryAdvance(Consumer<? super Object> action) {
+        String element;
+        try {
+          element = elementReader.next();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        if (element == null) {
+          return false;
+        }
+        action.accept(parseJSON(element, elementType));
+        return true;
       }
     };
-    ToyJSONParser.parse(text, visitor);
-    return visitor.result;
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  public <T> Stream<T> stream(Reader reader, Class<T> elementClass) {
+    return stream(reader, (Type) elementClass).map(elementClass::cast);
+  }
+
+  /**
+   * Returns a lazy stream of the elements of a JSON array read from an input stream encoded in UTF-8.
+   *
+   * @param input an input stream of a JSON array encoded in UTF-8
+   * @param elementClass the class of the elements
+   * @return a lazy sequential stream of the decoded elements
+   * @see #stream(Reader, Type)
+   */
+  public <T> Stream<T> stream(InputStream input, Class<T> elementClass) {
+    Objects.requireNonNull(input);
+    return stream(new InputStreamReader(input, StandardCharsets.UTF_8), elementClass);
   }
 }
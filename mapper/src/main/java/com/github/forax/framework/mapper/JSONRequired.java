@@ -0,0 +1,16 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.RECORD_COMPONENT;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The key of the property (the annotated setter or record component) must be present in the JSON object.
+ */
+@Retention(RUNTIME)
+@Target({METHOD, RECORD_COMPONENT})
+public @interface JSONRequired {
+}
@@ -0,0 +1,19 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The value of the discriminator key that selects the annotated subtype of a sealed interface,
+ * by default the value is the simple name of the class.
+ *
+ * @see JSONDiscriminator
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JSONTypeName {
+  String value();
+}
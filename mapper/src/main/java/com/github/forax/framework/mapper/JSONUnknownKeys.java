@@ -0,0 +1,24 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The policy of the annotated bean or record class for the keys of a JSON object
+ * that do not correspond to a property, by default an unknown key is an error.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JSONUnknownKeys {
+  Policy value();
+
+  enum Policy {
+    /** an unknown key is an error */
+    FAIL,
+    /** an unknown key and its value, even an object or an array, are skipped */
+    IGNORE
+  }
+}
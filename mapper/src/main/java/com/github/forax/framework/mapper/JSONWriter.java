@@ -1,37 +1,88 @@
 package com.github.forax.framework.mapper;
 
-import java.beans.BeanInfo;
-import java.beans.PropertyDescriptor;
-import java.util.Arrays;
+import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.*;
 
 public final class JSONWriter {
 
-    private static final ClassValue<List<Generator>> BEAN_INFO_CLASS_VALUE = new ClassValue<>() {
+    /**
+     * A property of a bean, its key, its getter and the JSON text written before its value.
+     * The properties of a class are computed once and are also used by the {@link CBORWriter}.
+     */
+    record Property(String name, Method getter, String prefix) { }
+
+    private static final ClassValue<List<Property>> BEAN_INFO_CLASS_VALUE = new ClassValue<>() {
         @Override
-        protected List<Generator> computeValue(Class<?> type) {
-            return Arrays.stream(Utils.beanInfo(type).getPropertyDescriptors())
-                    .filter(property -> !property.getName().equals("class"))
-                    .<Generator>map(property ->{
-                        var getter = property.getReadMethod();
-                        var annotation = getter.getAnnotation(JSONProperty.class);
-                        var name = annotation == null ? property.getName() : annotation.value();
-                        var prefix = '"' + name + '"' + ": ";
-                        return (writer, bean) -> {
-                            return  prefix + writer.toJSON( Utils.invokeMethod(bean, getter));
-                        };
+        protected List<Property> computeValue(Class<?> type) {
+            return BeanProperty.properties(type).stream()
+                    .filter(property -> property.getter() != null)
+                    .map(property -> {
+                        var name = property.key();
+                        return new Property(name, property.getter(), '"' + name + '"' + ": ");
                     }).toList();
         }
     };
 
-    @FunctionalInterface
-    private interface Generator {
-        String generate(JSONWriter writer, Object bean);
+    static List<Property> properties(Class<?> type) {
+        return BEAN_INFO_CLASS_VALUE.get(type);
+    }
+
+    private volatile MapperConfig config;
+
+    /**
+     * Creates a writer with the default configuration.
+     */
+    public JSONWriter() {
+        this(MapperConfig.DEFAULT);
+    }
+
+    /**
+     * Creates a writer with a configuration.
+     * A writer can be shared by several threads, the properties of the classes are cached
+     * once for all the writers because they do not depend on the configuration.
+     *
+     * @param config the configuration of the writer
+     */
+    public JSONWriter(MapperConfig config) {
+        Objects.requireNonNull(config);
+        this.config = config;
+    }
+
+    /**
+     * Returns the current configuration.
+     * @return the current configuration.
+     */
+    public MapperConfig config() {
+        return config;
+    }
+
+    /**
+     * Records the metrics of the documents written by this writer, or stops recording them.
+     *
+     * @param metrics the metrics or {@code null}
+     *
+     * @see MapperConfig.Builder#useMetrics(MapperMetrics)
+     */
+    public synchronized void useMetrics(MapperMetrics metrics) {
+        config = config.toBuilder().useMetrics(metrics).build();
     }
+
     public String toJSON(Object o) {
+        var metrics = config.metrics();
+        if (metrics == null || o == null) {
+            return write(o);
+        }
+        var start = System.nanoTime();
+        var json = write(o);
+        metrics.recordWrite(o.getClass(), json.length(), System.nanoTime() - start);
+        return json;
+    }
+
+    private String write(Object o) {
 
         return switch (o) {
             case null -> "null";
@@ -40,9 +91,9 @@ public final class JSONWriter {
             case Double d -> ""+d;
             case String s -> '"' + s + '"';
             default -> {
-                var generators = BEAN_INFO_CLASS_VALUE.get(o.getClass());
-                yield generators.stream()
-                        .map(generator -> generator.generate(this, o))
+                var properties = properties(o.getClass());
+                yield properties.stream()
+                        .map(property -> property.prefix() + write(Utils.invokeMethod(o, property.getter())))
                         .collect(joining(", ","{", "}"));
 //                return '"' + name + '"' + ": " + toJSON( Utils.invokeMethod(o, getter));
             }
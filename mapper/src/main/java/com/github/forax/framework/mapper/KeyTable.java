@@ -0,0 +1,141 @@
+package com.github.forax.framework.mapper;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable perfect hash table from the JSON keys of a class to a value.
+ *
+ * The table is computed once per class, the slot of a key is found by mixing the
+ * {@link String#hashCode()} of the key with a seed chosen so that there is no collision,
+ * so a lookup is one hash computation and one comparison
+ * (if two keys have the same hashCode, the table falls back to linear probing).
+ * A key can also be looked up directly from a range of characters of the JSON text,
+ * in that case, the canonical key is returned and no string is allocated.
+ *
+ * @param <V> the type of the values
+ */
+final class KeyTable<V> {
+  private static final KeyTable<?> EMPTY = new KeyTable<>(new String[1], new Object[1], 0, 0);
+
+  private final String[] keys;
+  private final Object[] values;
+  private final int mask;
+  private final int seed;
+
+  private KeyTable(String[] keys, Object[] values, int mask, int seed) {
+    this.keys = keys;
+    this.values = values;
+    this.mask = mask;
+    this.seed = seed;
+  }
+
+  private static int slot(int hash, int seed, int mask) {
+    var h = (hash ^ seed) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Creates a table from a map of keys to values.
+   *
+   * @param map the keys and their values
+   * @return a new table
+   * @param <V> the type of the values
+   */
+  @SuppressWarnings("unchecked")
+  static <V> KeyTable<V> of(Map<String, ? extends V> map) {
+    Objects.requireNonNull(map);
+    if (map.isEmpty()) {
+      return (KeyTable<V>) EMPTY;
+    }
+    var minSize = Integer.highestOneBit(map.size()) << 2;
+    for(var size = minSize; size <= minSize << 2; size <<= 1) {
+      for(var seed = 0; seed < 64; seed++) {
+        var table = KeyTable.<V>fill(map, size, seed, false);
+        if (table != null) {
+          return table;
+        }
+      }
+    }
+    // keys with the same hashCode can not be separated, fallback to linear probing
+    return fill(map, minSize, 0, true);
+  }
+
+  private static <V> KeyTable<V> fill(Map<String, ? extends V> map, int size, int seed, boolean probe) {
+    var mask = size - 1;
+    var keys = new String[size];
+    var values = new Object[size];
+    for(var entry : map.entrySet()) {
+      var key = entry.getKey();
+      var slot = slot(key.hashCode(), seed, mask);
+      while (keys[slot] != null) {
+        if (!probe) {
+          return null;
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = entry.getValue();
+    }
+    return new KeyTable<>(keys, values, mask, seed);
+  }
+
+  /**
+   * Returns the value associated to a key or {@code null}.
+   *
+   * @param key a key
+   * @return the value associated to the key or {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  V get(String key) {
+    for(var slot = slot(key.hashCode(), seed, mask); ; slot = (slot + 1) & mask) {
+      var candidate = keys[slot];
+      if (candidate == key) {
+        return (V) values[slot];
+      }
+      if (candidate == null) {
+        return null;
+      }
+      if (candidate.equals(key)) {
+        return (V) values[slot];
+      }
+    }
+  }
+
+  /**
+   * Returns the canonical key equals to the characters between {@code start} and {@code end}
+   * or {@code null} if there is no such key.
+   *
+   * @param text a text
+   * @param start the start index (inclusive)
+   * @param end the end index (exclusive)
+   * @return the canonical key or {@code null}
+   */
+  String key(CharSequence text, int start, int end) {
+    var hash = 0;
+    for(var i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    for(var slot = slot(hash, seed, mask); ; slot = (slot + 1) & mask) {
+      var candidate = keys[slot];
+      if (candidate == null) {
+        return null;
+      }
+      if (regionMatches(candidate, text, start, end)) {
+        return candidate;
+      }
+    }
+  }
+
+  private static boolean regionMatches(String key, CharSequence text, int start, int end) {
+    if (key.length() != end - start) {
+      return false;
+    }
+    for(var i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != text.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
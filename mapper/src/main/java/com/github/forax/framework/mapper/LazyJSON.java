@@ -0,0 +1,232 @@
+package com.github.forax.framework.mapper;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static com.github.forax.framework.mapper.StructuralIndex.ARRAY;
+import static com.github.forax.framework.mapper.StructuralIndex.FALSE;
+import static com.github.forax.framework.mapper.StructuralIndex.FLOATING;
+import static com.github.forax.framework.mapper.StructuralIndex.NULL;
+import static com.github.forax.framework.mapper.StructuralIndex.NUMBER;
+import static com.github.forax.framework.mapper.StructuralIndex.OBJECT;
+import static com.github.forax.framework.mapper.StructuralIndex.STRING;
+import static com.github.forax.framework.mapper.StructuralIndex.TRUE;
+
+/**
+ * A JSON value decoded on demand.
+ *
+ * The JSON text is scanned once to record the offsets of all the values,
+ * then navigating with {@link #get(String)} or {@link #get(int)} only skips from offset to offset
+ * and a value is decoded only when {@link #asLong()}, {@link #asString()}, etc. is called.
+ * <pre>
+ *   var total = LazyJSON.parse(text).get("orders").get(3).get("total").asLong();
+ * </pre>
+ */
+public final class LazyJSON {
+  /**
+   * The kind of JSON value.
+   */
+  public enum Kind {
+    OBJECT, ARRAY, STRING, NUMBER, TRUE, FALSE, NULL
+  }
+
+  private static final Kind[] KINDS = Kind.values();
+
+  private final StructuralIndex index;
+  private final int entry;
+
+  private LazyJSON(StructuralIndex index, int entry) {
+    this.index = index;
+    this.entry = entry;
+  }
+
+  /**
+   * Scans a JSON text and returns its root value.
+   *
+   * @param text a JSON text
+   * @return the root value
+   * @throws IllegalStateException if the text is not a valid JSON text
+   */
+  public static LazyJSON parse(String text) {
+    Objects.requireNonNull(text);
+    return new LazyJSON(StructuralIndex.of(text), 0);
+  }
+
+  /**
+   * Returns the kind of the value.
+   * @return the kind of the value.
+   */
+  public Kind kind() {
+    return KINDS[index.kind(entry)];
+  }
+
+  private void requireKind(int kind) {
+    if (index.kind(entry) != kind) {
+      throw new IllegalStateException("expect " + KINDS[kind] + " but was " + kind());
+    }
+  }
+
+  /**
+   * Returns the value associated to a key of an object.
+   *
+   * @param key a key
+   * @return the value associated to the key
+   * @throws IllegalStateException if the value is not an object
+   * @throws NoSuchElementException if the key is not present
+   */
+  public LazyJSON get(String key) {
+    Objects.requireNonNull(key);
+    var value = find(key);
+    if (value == -1) {
+      throw new NoSuchElementException("no key " + key);
+    }
+    return new LazyJSON(index, value);
+  }
+
+  /**
+   * Returns true if the object contains the key.
+   *
+   * @param key a key
+   * @return true if the object contains the key.
+   * @throws IllegalStateException if the value is not an object
+   */
+  public boolean has(String key) {
+    Objects.requireNonNull(key);
+    return find(key) != -1;
+  }
+
+  private int find(String key) {
+    requireKind(OBJECT);
+    var end = index.next(entry);
+    for(var child = entry + 1; child < end; child = index.next(child + 1)) {
+      if (index.stringEquals(child, key)) {
+        return child + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the element of an array at an index.
+   *
+   * @param elementIndex the index of the element
+   * @return the element at the index
+   * @throws IllegalStateException if the value is not an array
+   * @throws IndexOutOfBoundsException if the index is out of bounds
+   */
+  public LazyJSON get(int elementIndex) {
+    requireKind(ARRAY);
+    if (elementIndex < 0) {
+      throw new IndexOutOfBoundsException(elementIndex);
+    }
+    var end = index.next(entry);
+    var child = entry + 1;
+    for(var i = 0; i < elementIndex && child < end; i++) {
+      child = index.next(child);
+    }
+    if (child >= end) {
+      throw new IndexOutOfBoundsException(elementIndex);
+    }
+    return new LazyJSON(index, child);
+  }
+
+  /**
+   * Returns the number of elements of an array or the number of keys of an object.
+   * @return the number of elements of an array or the number of keys of an object.
+   * @throws IllegalStateException if the value is neither an object nor an array
+   */
+  public int size() {
+    var kind = index.kind(entry);
+    if (kind != OBJECT && kind != ARRAY) {
+      throw new IllegalStateException("expect OBJECT or ARRAY but was " + kind());
+    }
+    var end = index.next(entry);
+    var size = 0;
+    for(var child = entry + 1; child < end; child = index.next(kind == OBJECT ? child + 1 : child)) {
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Returns true if the value is {@code null}.
+   * @return true if the value is {@code null}.
+   */
+  public boolean isNull() {
+    return index.kind(entry) == NULL;
+  }
+
+  /**
+   * Returns the value as a boolean.
+   * @return the value as a boolean.
+   * @throws IllegalStateException if the value is not a boolean
+   */
+  public boolean asBoolean() {
+    return switch (index.kind(entry)) {
+      case TRUE -> true;
+      case FALSE -> false;
+      default -> throw new IllegalStateException("expect TRUE or FALSE but was " + kind());
+    };
+  }
+
+  /**
+   * Returns the value as an int.
+   * @return the value as an int.
+   * @throws IllegalStateException if the value is not an integral number
+   */
+  public int asInt() {
+    requireIntegral();
+    return Integer.parseInt(index.text(), index.start(entry), index.end(entry), 10);
+  }
+
+  /**
+   * Returns the value as a long.
+   * @return the value as a long.
+   * @throws IllegalStateException if the value is not an integral number
+   */
+  public long asLong() {
+    requireIntegral();
+    return Long.parseLong(index.text(), index.start(entry), index.end(entry), 10);
+  }
+
+  private void requireIntegral() {
+    requireKind(NUMBER);
+    if (index.is(entry, FLOATING)) {
+      throw new IllegalStateException("expect an integral number but was " + this);
+    }
+  }
+
+  /**
+   * Returns the value as a double.
+   * @return the value as a double.
+   * @throws IllegalStateException if the value is not a number
+   */
+  public double asDouble() {
+    requireKind(NUMBER);
+    return Double.parseDouble(index.text().substring(index.start(entry), index.end(entry)));
+  }
+
+  /**
+   * Returns the value as a string, the escape sequences are decoded.
+   * @return the value as a string.
+   * @throws IllegalStateException if the value is not a string
+   */
+  public String asString() {
+    requireKind(STRING);
+    return index.string(entry);
+  }
+
+  /**
+   * Returns the JSON text of the value.
+   * @return the JSON text of the value.
+   */
+  @Override
+  public String toString() {
+    var start = index.start(entry);
+    var end = index.end(entry);
+    if (index.kind(entry) == STRING) {
+      return index.text().substring(start - 1, end + 1);
+    }
+    return index.text().substring(start, end);
+  }
+}
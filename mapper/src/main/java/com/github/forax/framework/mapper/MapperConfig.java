@@ -0,0 +1,195 @@
+package com.github.forax.framework.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable configuration of a {@link JSONReader} or a {@link JSONWriter}, created by a {@link Builder}.
+ * <pre>
+ *   var config = MapperConfig.builder()
+ *       .useIndexedParser(true)
+ *       .useStringCache(1_024)
+ *       .build();
+ *   var reader = new JSONReader(config);
+ * </pre>
+ *
+ * A reader or a writer reads its configuration once per document, so it can be shared by
+ * several threads (platform or virtual) even if it is reconfigured while documents are read,
+ * each document sees either the old or the new configuration, never a mix of both.
+ * A reader keeps its caches per configuration, a new configuration starts with empty caches,
+ * so the caches are never invalidated and reading a document never takes a lock.
+ */
+public final class MapperConfig {
+  /**
+   * The default configuration.
+   */
+  public static final MapperConfig DEFAULT = builder().build();
+
+  private final List<JSONReader.TypeMatcher> typeMatchers;
+  private final boolean indexedParser;
+  private final int stringCacheCapacity;
+  private final StringCache stringCache;
+  private final JSONLimits limits;
+  private final MapperMetrics metrics;
+
+  private MapperConfig(Builder builder) {
+    typeMatchers = List.copyOf(builder.typeMatchers);
+    indexedParser = builder.indexedParser;
+    stringCacheCapacity = builder.stringCacheCapacity;
+    stringCache = stringCacheCapacity == 0 ? null : new StringCache(stringCacheCapacity);
+    limits = builder.limits;
+    metrics = builder.metrics;
+  }
+
+  /**
+   * Returns a new builder with the default configuration.
+   * @return a new builder with the default configuration.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns a new builder initialized with this configuration.
+   * @return a new builder initialized with this configuration.
+   */
+  public Builder toBuilder() {
+    var builder = new Builder();
+    builder.typeMatchers.addAll(typeMatchers);
+    builder.indexedParser = indexedParser;
+    builder.stringCacheCapacity = stringCacheCapacity;
+    builder.limits = limits;
+    builder.metrics = metrics;
+    return builder;
+  }
+
+  /**
+   * Returns the type matchers in insertion order.
+   * @return the type matchers in insertion order.
+   */
+  public List<JSONReader.TypeMatcher> typeMatchers() {
+    return typeMatchers;
+  }
+
+  /**
+   * Returns true if the {@link IndexedJSONParser} is used.
+   * @return true if the {@link IndexedJSONParser} is used.
+   */
+  public boolean indexedParser() {
+    return indexedParser;
+  }
+
+  /**
+   * Returns the capacity of the string cache or 0 if there is no string cache.
+   * @return the capacity of the string cache or 0 if there is no string cache.
+   */
+  public int stringCacheCapacity() {
+    return stringCacheCapacity;
+  }
+
+  StringCache stringCache() {
+    return stringCache;
+  }
+
+  /**
+   * Returns the limits checked when parsing a JSON text.
+   * @return the limits checked when parsing a JSON text.
+   */
+  public JSONLimits limits() {
+    return limits;
+  }
+
+  /**
+   * Returns the metrics or {@code null}.
+   * @return the metrics or {@code null}.
+   */
+  public MapperMetrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * A mutable builder of {@link MapperConfig}, a builder is not thread safe.
+   */
+  public static final class Builder {
+    private final ArrayList<JSONReader.TypeMatcher> typeMatchers = new ArrayList<>();
+    private boolean indexedParser;
+    private int stringCacheCapacity;
+    private JSONLimits limits = JSONLimits.DEFAULT;
+    private MapperMetrics metrics;
+
+    private Builder() {}
+
+    /**
+     * Adds a type matcher, the type matchers are called in the reverse order of the insertion order
+     * and if no type matcher recognizes a type, the type is decoded as a list, a set, a map, an array,
+     * a record or a Java bean.
+     *
+     * @param typeMatcher a type matcher
+     * @return this builder
+     */
+    public Builder addTypeMatcher(JSONReader.TypeMatcher typeMatcher) {
+      Objects.requireNonNull(typeMatcher);
+      typeMatchers.add(typeMatcher);
+      return this;
+    }
+
+    /**
+     * Uses the {@link IndexedJSONParser} instead of the {@link ToyJSONParser}.
+     *
+     * @param indexedParser true to use the indexed parser
+     * @return this builder
+     */
+    public Builder useIndexedParser(boolean indexedParser) {
+      this.indexedParser = indexedParser;
+      return this;
+    }
+
+    /**
+     * Uses a bounded cache of canonical strings, each configuration has its own cache.
+     *
+     * @param capacity the number of strings of the cache or 0 to not use a cache
+     * @return this builder
+     * @throws IllegalArgumentException if the capacity is negative or greater than 2^30
+     */
+    public Builder useStringCache(int capacity) {
+      if (capacity < 0 || capacity > 1 << 30) {
+        throw new IllegalArgumentException("invalid capacity " + capacity);
+      }
+      this.stringCacheCapacity = capacity;
+      return this;
+    }
+
+    /**
+     * Uses limits to reject the JSON texts or the CBOR data with objects or arrays too deeply nested
+     * or too large, strings or numbers too long, by default {@link JSONLimits#DEFAULT}.
+     *
+     * @param limits the limits checked when parsing a JSON text or CBOR data
+     * @return this builder
+     */
+    public Builder useLimits(JSONLimits limits) {
+      Objects.requireNonNull(limits);
+      this.limits = limits;
+      return this;
+    }
+
+    /**
+     * Records the metrics of the documents read or written.
+     *
+     * @param metrics the metrics or {@code null}
+     * @return this builder
+     */
+    public Builder useMetrics(MapperMetrics metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    /**
+     * Creates an immutable configuration.
+     * @return an immutable configuration.
+     */
+    public MapperConfig build() {
+      return new MapperConfig(this);
+    }
+  }
+}
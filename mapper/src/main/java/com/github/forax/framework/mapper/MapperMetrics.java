@@ -0,0 +1,135 @@
+package com.github.forax.framework.mapper;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the documents read by a {@link JSONReader} and written by a {@link JSONWriter},
+ * the number of documents, their length and a histogram of the latencies, per root type.
+ * A document that takes more time than the slow threshold is also reported as a JFR event
+ * named {@code com.github.forax.framework.mapper.SlowDocument}.
+ * <pre>
+ *   var metrics = new MapperMetrics(Duration.ofMillis(5));
+ *   reader.useMetrics(metrics);
+ *   ...
+ *   metrics.reads().forEach((type, typeMetrics) -&gt; System.out.println(type.getTypeName() + " " + typeMetrics));
+ * </pre>
+ *
+ * The metrics are opt-in, without metrics, the reader and the writer only check that there is no metrics.
+ * All the metrics are updated without lock and can be shared by several readers and writers.
+ */
+public final class MapperMetrics {
+  /**
+   * The metrics of the documents of a root type.
+   */
+  public static final class TypeMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder length = new LongAdder();
+    private final Histogram latencies = new Histogram();
+
+    private TypeMetrics() {}
+
+    /**
+     * Returns the number of documents.
+     * @return the number of documents.
+     */
+    public long count() {
+      return count.sum();
+    }
+
+    /**
+     * Returns the total length of the documents, in characters for JSON, in bytes for CBOR.
+     * @return the total length of the documents.
+     */
+    public long length() {
+      return length.sum();
+    }
+
+    /**
+     * Returns the histogram of the latencies in nanoseconds.
+     * @return the histogram of the latencies in nanoseconds.
+     */
+    public Histogram latencies() {
+      return latencies;
+    }
+
+    @Override
+    public String toString() {
+      return "count=" + count() + " length=" + length() + " latencies(ns)=[" + latencies + "]";
+    }
+  }
+
+  private final long slowThreshold;
+  private final ConcurrentHashMap<Type, TypeMetrics> reads = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Type, TypeMetrics> writes = new ConcurrentHashMap<>();
+
+  /**
+   * Creates metrics with a slow threshold of 10 milliseconds.
+   */
+  public MapperMetrics() {
+    this(Duration.ofMillis(10));
+  }
+
+  /**
+   * Creates metrics.
+   *
+   * @param slowThreshold the duration above which a document is reported as a JFR event
+   * @throws IllegalArgumentException if the threshold is negative
+   */
+  public MapperMetrics(Duration slowThreshold) {
+    Objects.requireNonNull(slowThreshold);
+    if (slowThreshold.isNegative()) {
+      throw new IllegalArgumentException("negative threshold " + slowThreshold);
+    }
+    this.slowThreshold = slowThreshold.toNanos();
+  }
+
+  /**
+   * Returns the metrics of the documents read, per root type.
+   * @return an unmodifiable view of the metrics of the documents read.
+   */
+  public Map<Type, TypeMetrics> reads() {
+    return Collections.unmodifiableMap(reads);
+  }
+
+  /**
+   * Returns the metrics of the documents written, per root class.
+   * @return an unmodifiable view of the metrics of the documents written.
+   */
+  public Map<Type, TypeMetrics> writes() {
+    return Collections.unmodifiableMap(writes);
+  }
+
+  private void record(String operation, ConcurrentHashMap<Type, TypeMetrics> map, Type type, long length, long elapsed) {
+    var typeMetrics = map.get(type);
+    if (typeMetrics == null) {
+      typeMetrics = map.computeIfAbsent(type, __ -> new TypeMetrics());
+    }
+    typeMetrics.count.increment();
+    typeMetrics.length.add(length);
+    typeMetrics.latencies.record(elapsed);
+    if (elapsed >= slowThreshold) {
+      var event = new SlowDocumentEvent();
+      if (event.isEnabled()) {
+        event.operation = operation;
+        event.rootType = type.getTypeName();
+        event.length = length;
+        event.elapsed = elapsed;
+        event.commit();
+      }
+    }
+  }
+
+  void recordRead(Type type, long length, long elapsed) {
+    record("read", reads, type, length, elapsed);
+  }
+
+  void recordWrite(Type type, long length, long elapsed) {
+    record("write", writes, type, length, elapsed);
+  }
+}
@@ -0,0 +1,208 @@
+package com.github.forax.framework.mapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.System.Logger.Level;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A snapshot of the properties found by {@link BeanProperty}, computed at build time and stored
+ * in the resource {@value #RESOURCE}, so at runtime the properties of a class are not found by applying
+ * the naming rules to all its public methods and reading their annotations, the getter and the setter
+ * are looked up by name. The lookup still uses reflection ({@link Class#getMethod(String, Class[])}),
+ * because the readers and the writers need the {@link Method}s, so the snapshot skips the scan,
+ * it does not avoid reflection.
+ *
+ * The snapshot is created during the build by {@link MetadataSnapshotGenerator},
+ * all the resources {@value #RESOURCE} of the class path are loaded once, on first use.
+ * If the snapshot of a class is not in sync with the class, a getter or a setter does not exist anymore,
+ * or if a snapshot can not be read, the class is scanned as usual. The snapshot is a plain text resource, so it can be stored
+ * alongside the classes in a CDS archive without any special support.
+ */
+public final class MetadataSnapshot {
+  private MetadataSnapshot() {
+    throw new AssertionError();
+  }
+
+  /**
+   * The name of the resource containing the snapshot.
+   */
+  public static final String RESOURCE = "META-INF/mapper-metadata.txt";
+
+  private static final String HEADER = "# mapper metadata v1";
+  private static final String CLASS = "class\t";
+  private static final String ABSENT = "-";
+
+  /**
+   * Writes the snapshot of the properties of some classes.
+   *
+   * @param writer the writer of the snapshot
+   * @param classes the bean classes and the record classes
+   * @throws IOException if an I/O error occurs
+   */
+  public static void write(Writer writer, Collection<? extends Class<?>> classes) throws IOException {
+    Objects.requireNonNull(writer);
+    Objects.requireNonNull(classes);
+    writer.write(HEADER + "\n");
+    for(var type : classes) {
+      writer.write(CLASS + type.getName() + "\n");
+      for(var property : BeanProperty.scan(type)) {
+        var getter = property.getter();
+        var setter = property.setter();
+        writer.write(String.join("\t", "",
+            escape(property.name()),
+            escape(property.key()),
+            getter == null ? ABSENT : getter.getName(),
+            setter == null ? ABSENT : setter.getName(),
+            setter == null ? ABSENT : MethodType.methodType(void.class, setter.getParameterTypes()).toMethodDescriptorString()) + "\n");
+      }
+    }
+  }
+
+  private static String escape(String text) {
+    return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+  }
+
+  private static String unescape(String text) {
+    if (text.indexOf('\\') == -1) {
+      return text;
+    }
+    var builder = new StringBuilder(text.length());
+    for(var i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c == '\\' && i + 1 < text.length()) {
+        c = switch (text.charAt(++i)) {
+          case 't' -> '\t';
+          case 'n' -> '\n';
+          default -> text.charAt(i);
+        };
+      }
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Reads a snapshot.
+   *
+   * @param reader the reader of the snapshot
+   * @param entries the lines of the properties by class name
+   * @throws IOException if an I/O error occurs
+   */
+  static void read(BufferedReader reader, Map<String, List<String>> entries) throws IOException {
+    var header = reader.readLine();
+    if (!HEADER.equals(header)) {
+      throw new IllegalStateException("invalid metadata snapshot header " + header);
+    }
+    List<String> lines = null;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.startsWith(CLASS)) {
+        lines = new ArrayList<>();
+        entries.put(line.substring(CLASS.length()), lines);
+        continue;
+      }
+      if (lines == null || !line.startsWith("\t")) {
+        throw new IllegalStateException("invalid metadata snapshot line " + line);
+      }
+      lines.add(line);
+    }
+  }
+
+  /**
+   * Returns the properties of a class from the lines of its snapshot or {@code null}
+   * if the snapshot is not in sync with the class.
+   *
+   * @param type the class
+   * @param lines the lines of the properties
+   * @return the properties of the class or {@code null}
+   */
+  static List<BeanProperty> resolve(Class<?> type, List<String> lines) {
+    var properties = new ArrayList<BeanProperty>(lines.size());
+    try {
+      for(var line : lines) {
+        var fields = line.split("\t", -1);
+        if (fields.length != 6) {
+          return null;
+        }
+        Method getter = fields[3].equals(ABSENT) ? null : type.getMethod(fields[3]);
+        Method setter = fields[4].equals(ABSENT) ? null : type.getMethod(fields[4],
+            MethodType.fromMethodDescriptorString(fields[5], type.getClassLoader()).parameterArray());
+        properties.add(new BeanProperty(unescape(fields[1]), unescape(fields[2]), getter, setter));
+      }
+    } catch (NoSuchMethodException | TypeNotPresentException | IllegalArgumentException e) {
+      return null;
+    }
+    return List.copyOf(properties);
+  }
+
+  private static final System.Logger LOGGER = System.getLogger(MetadataSnapshot.class.getName());
+
+  /**
+   * Reads all the snapshots visible from a class loader.
+   * A snapshot that can not be read is logged and skipped, so its classes are scanned as usual.
+   *
+   * @param loader the class loader
+   * @return the lines of the properties by class name
+   */
+  static Map<String, List<String>> readAll(ClassLoader loader) {
+    var entries = new HashMap<String, List<String>>();
+    Enumeration<URL> urls;
+    try {
+      urls = loader.getResources(RESOURCE);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "can not find the metadata snapshots, the classes are scanned", e);
+      return entries;
+    }
+    while (urls.hasMoreElements()) {
+      var url = urls.nextElement();
+      // a snapshot is merged only once fully read
+      var snapshotEntries = new HashMap<String, List<String>>();
+      try(var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+        read(reader, snapshotEntries);
+      } catch (IOException | IllegalStateException e) {
+        LOGGER.log(Level.WARNING, "invalid metadata snapshot " + url + ", its classes are scanned", e);
+        continue;
+      }
+      entries.putAll(snapshotEntries);
+    }
+    return entries;
+  }
+
+  /**
+   * All the snapshots of the class path, loaded once.
+   */
+  private static final class SnapshotHolder {
+    private SnapshotHolder() {
+      throw new AssertionError();
+    }
+
+    private static final Map<String, List<String>> ENTRIES =
+        Collections.unmodifiableMap(readAll(MetadataSnapshot.class.getClassLoader()));
+  }
+
+  /**
+   * Returns the properties of a class from the snapshots or {@code null}
+   * if the class is not in a snapshot or if the snapshot is not in sync with the class.
+   *
+   * @param type the class
+   * @return the properties of the class or {@code null}
+   */
+  static List<BeanProperty> properties(Class<?> type) {
+    var lines = SnapshotHolder.ENTRIES.get(type.getName());
+    return lines == null ? null : resolve(type, lines);
+  }
+}
@@ -0,0 +1,66 @@
+package com.github.forax.framework.mapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The build step that writes the {@link MetadataSnapshot} of some classes,
+ * it is run by the Maven profile {@code mapper-metadata} after the classes are compiled.
+ * <pre>
+ *   mvn process-classes -Dmapper.metadata.classes="com.acme.Person com.acme.Order"
+ * </pre>
+ * or directly
+ * <pre>
+ *   java -cp ... com.github.forax.framework.mapper.MetadataSnapshotGenerator \
+ *       target/classes/META-INF/mapper-metadata.txt com.acme.Person com.acme.Order ...
+ * </pre>
+ */
+public final class MetadataSnapshotGenerator {
+  private MetadataSnapshotGenerator() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Writes the snapshot of the properties of some classes into a file.
+   *
+   * @param path the path of the snapshot
+   * @param classNames the names of the bean classes and the record classes
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if a class does not exist
+   */
+  public static void generate(Path path, String... classNames) throws IOException {
+    var loader = MetadataSnapshotGenerator.class.getClassLoader();
+    var classes = new ArrayList<Class<?>>();
+    for(var className : classNames) {
+      try {
+        classes.add(Class.forName(className, false, loader));
+      } catch (ClassNotFoundException e) {
+        throw new IllegalArgumentException("unknown class " + className, e);
+      }
+    }
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try(var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      MetadataSnapshot.write(writer, classes);
+    }
+  }
+
+  /**
+   * Writes the snapshot of the properties of the classes named after the path of the snapshot.
+   *
+   * @param args the path of the snapshot followed by the names of the classes
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if there is no path or if a class does not exist
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      throw new IllegalArgumentException("usage: MetadataSnapshotGenerator snapshot-path class-name...");
+    }
+    generate(Path.of(args[0]), Arrays.copyOfRange(args, 1, args.length));
+  }
+}
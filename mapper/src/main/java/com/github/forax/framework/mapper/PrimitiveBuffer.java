@@ -0,0 +1,122 @@
+package com.github.forax.framework.mapper;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A growable buffer of primitive values used to decode a JSON array into a primitive array
+ * without boxing the elements.
+ * All the values are stored in a {@code long[]}, the floating point values are stored as raw bits
+ * and the booleans as 0 or 1, the primitive array is created once all the values are known.
+ */
+final class PrimitiveBuffer {
+  private final Class<?> componentType;
+  private long[] values = new long[16];
+  private int size;
+
+  /**
+   * Creates a buffer for a primitive component type.
+   *
+   * @param componentType a primitive type
+   */
+  PrimitiveBuffer(Class<?> componentType) {
+    Objects.requireNonNull(componentType);
+    if (!componentType.isPrimitive() || componentType == void.class) {
+      throw new IllegalArgumentException("not a primitive type " + componentType.getName());
+    }
+    this.componentType = componentType;
+  }
+
+  private void append(long value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size << 1);
+    }
+    values[size++] = value;
+  }
+
+  private boolean isFloatingPoint() {
+    return componentType == double.class || componentType == float.class;
+  }
+
+  void add(int value) {
+    if (componentType == boolean.class || componentType == char.class) {
+      throw new IllegalStateException("invalid value " + value + " for an array of " + componentType.getName());
+    }
+    append(isFloatingPoint() ? Double.doubleToRawLongBits(value) : value);
+  }
+
+  void add(double value) {
+    if (!isFloatingPoint()) {
+      throw new IllegalStateException("invalid value " + value + " for an array of " + componentType.getName());
+    }
+    append(Double.doubleToRawLongBits(value));
+  }
+
+  void add(Object value) {
+    switch (value) {
+      case Integer i -> add((int) i);
+      case Double d -> add((double) d);
+      case Long l when componentType == long.class -> append(l);
+      case Boolean b when componentType == boolean.class -> append(b ? 1 : 0);
+      case String s when componentType == char.class && s.length() == 1 -> append(s.charAt(0));
+      case null, default -> throw new IllegalStateException("invalid value " + value + " for an array of " + componentType.getName());
+    }
+  }
+
+  /**
+   * Returns a new primitive array containing the values of the buffer.
+   * @return a new primitive array containing the values of the buffer.
+   */
+  Object toArray() {
+    if (componentType == long.class) {
+      return Arrays.copyOf(values, size);
+    }
+    if (componentType == int.class) {
+      var array = new int[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = (int) values[i];
+      }
+      return array;
+    }
+    if (componentType == double.class) {
+      var array = new double[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = Double.longBitsToDouble(values[i]);
+      }
+      return array;
+    }
+    if (componentType == float.class) {
+      var array = new float[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = (float) Double.longBitsToDouble(values[i]);
+      }
+      return array;
+    }
+    if (componentType == short.class) {
+      var array = new short[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = (short) values[i];
+      }
+      return array;
+    }
+    if (componentType == byte.class) {
+      var array = new byte[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = (byte) values[i];
+      }
+      return array;
+    }
+    if (componentType == char.class) {
+      var array = new char[size];
+      for(var i = 0; i < size; i++) {
+        array[i] = (char) values[i];
+      }
+      return array;
+    }
+    var array = new boolean[size];
+    for(var i = 0; i < size; i++) {
+      array[i] = values[i] != 0;
+    }
+    return array;
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.forax.framework.mapper;
+
+import java.util.Arrays;
+
+/**
+ * Splits a text containing several JSON records at the record boundaries,
+ * so each record can be decoded independently.
+ *
+ * The boundaries are returned as an array of pairs of offsets, the start (inclusive) and the end (exclusive)
+ * of each record.
+ */
+final class RecordSplitter {
+  private RecordSplitter() {
+    throw new AssertionError();
+  }
+
+  private static int[] add(int[] bounds, int size, int start, int end) {
+    if (size + 2 > bounds.length) {
+      bounds = Arrays.copyOf(bounds, bounds.length << 1);
+    }
+    bounds[size] = start;
+    bounds[size + 1] = end;
+    return bounds;
+  }
+
+  private static boolean isBlank(String text, int start, int end) {
+    for(var i = start; i < end; i++) {
+      switch (text.charAt(i)) {
+        case ' ', '\t', '\n', '\r' -> {}
+        default -> {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Splits a text in the JSON Lines format (one JSON value per line), the blank lines are skipped.
+   *
+   * @param text a text in the JSON Lines format
+   * @return the offsets of the lines
+   */
+  static int[] lines(String text) {
+    var bounds = new int[32];
+    var size = 0;
+    for(var start = 0; start < text.length();) {
+      var end = text.indexOf('\n', start);
+      if (end == -1) {
+        end = text.length();
+      }
+      if (!isBlank(text, start, end)) {
+        bounds = add(bounds, size, start, end);
+        size += 2;
+      }
+      start = end + 1;
+    }
+    return Arrays.copyOf(bounds, size);
+  }
+
+  /**
+   * Splits a JSON array into its elements, using the structural index of the
+   * {@link IndexedJSONParser} to find the commas that are not nested.
+   *
+   * @param text a JSON array
+   * @return the offsets of the elements of the array
+   */
+  static int[] arrayElements(String text) {
+    var structurals = IndexedJSONParser.structurals(text);
+    var positions = structurals.positions();
+    if (structurals.size() == 0 || text.charAt(positions[0]) != '[') {
+      throw new IllegalStateException("expect a JSON array");
+    }
+    var bounds = new int[32];
+    var size = 0;
+    var depth = 0;
+    var start = positions[0] + 1;
+    for(var i = 0; i < structurals.size(); i++) {
+      var position = positions[i];
+      switch (text.charAt(position)) {
+        case '{', '[' -> depth++;
+        case '}', ']' -> {
+          if (--depth == 0) {
+            if (i != structurals.size() - 1) {
+              throw new IllegalStateException("unexpected character '" + text.charAt(positions[i + 1]) + "' at " + positions[i + 1]);
+            }
+            if (!isBlank(text, start, position) || size != 0) {
+              bounds = add(bounds, size, start, position);
+              size += 2;
+            }
+            return Arrays.copyOf(bounds, size);
+          }
+        }
+        case ',' -> {
+          if (depth == 1) {
+            bounds = add(bounds, size, start, position);
+            size += 2;
+            start = position + 1;
+          }
+        }
+        default -> {}
+      }
+    }
+    throw new IllegalStateException("unexpected end of text");
+  }
+}
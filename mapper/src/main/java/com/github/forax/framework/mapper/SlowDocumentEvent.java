@@ -0,0 +1,34 @@
+package com.github.forax.framework.mapper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event emitted by {@link MapperMetrics} when reading or writing a document
+ * takes more time than the slow threshold.
+ */
+@Name("com.github.forax.framework.mapper.SlowDocument")
+@Label("Slow JSON Document")
+@Description("A JSON document that took more time to read or write than the slow threshold")
+@Category({"Java Framework", "Mapper"})
+@StackTrace(false)
+final class SlowDocumentEvent extends Event {
+  @Label("Operation")
+  String operation;
+
+  @Label("Root Type")
+  String rootType;
+
+  @Label("Length")
+  @Description("The number of characters or bytes of the document")
+  long length;
+
+  @Label("Elapsed")
+  @Timespan(Timespan.NANOSECONDS)
+  long elapsed;
+}
@@ -0,0 +1,69 @@
+package com.github.forax.framework.mapper;
+
+/**
+ * A bounded cache of canonical strings indexed by the characters of a range of a text,
+ * so a string value repeated in a JSON text (a country code, a status, etc.) is allocated once
+ * and the objects created from the text share the same string.
+ *
+ * The cache is direct mapped, each range of characters has only one possible slot,
+ * a string replaces the previous string of its slot, so the memory used by the cache is bounded
+ * and a lookup never probes more than one slot. Only the short strings are cached.
+ *
+ * The cache can be used by several threads, the slots are updated without synchronization
+ * because a {@link String} is immutable and storing or losing a string in a slot is harmless.
+ */
+final class StringCache {
+  /**
+   * The maximum length of a cached string.
+   */
+  static final int MAX_LENGTH = 32;
+
+  private final String[] strings;
+
+  /**
+   * Creates a cache.
+   *
+   * @param capacity the number of slots, rounded to the next power of two
+   * @throws IllegalArgumentException if the capacity is not positive or greater than 2^30
+   */
+  StringCache(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("invalid capacity " + capacity);
+    }
+    strings = new String[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+  }
+
+  /**
+   * Returns the number of slots of the cache.
+   * @return the number of slots of the cache.
+   */
+  int capacity() {
+    return strings.length;
+  }
+
+  /**
+   * Returns the canonical string equals to the characters between {@code start} and {@code end}
+   * or {@code null} if the string is too long to be cached.
+   *
+   * @param input a text
+   * @param start the start index of the string in the input (inclusive)
+   * @param end the end index of the string in the input (exclusive)
+   * @return the canonical string or {@code null}.
+   */
+  String get(String input, int start, int end) {
+    var length = end - start;
+    if (length > MAX_LENGTH) {
+      return null;
+    }
+    var hash = 0;
+    for(var i = start; i < end; i++) {
+      hash = hash * 31 + input.charAt(i);
+    }
+    var slot = (hash ^ (hash >>> 16)) & (strings.length - 1);
+    var string = strings[slot];
+    if (string != null && string.length() == length && input.regionMatches(start, string, 0, length)) {
+      return string;
+    }
+    return strings[slot] = input.substring(start, end);
+  }
+}
@@ -0,0 +1,302 @@
+package com.github.forax.framework.mapper;
+
+import java.util.Arrays;
+
+/**
+ * A structural index of a JSON text computed in one pass.
+ *
+ * Each JSON value (and each key of an object) is recorded as an entry, in the order of the text,
+ * with its kind, the offsets of its first and last characters and the index of the entry
+ * that follows the value (so a whole object or array can be skipped in one step).
+ * The values are not decoded, they are decoded on demand using their offsets.
+ *
+ * The scan is iterative, an explicit stack is used to track the enclosing objects and arrays.
+ */
+final class StructuralIndex {
+  static final int OBJECT = 0;
+  static final int ARRAY = 1;
+  static final int STRING = 2;
+  static final int NUMBER = 3;
+  static final int TRUE = 4;
+  static final int FALSE = 5;
+  static final int NULL = 6;
+
+  /** flag of a string that contains at least an escape sequence */
+  static final int ESCAPED = 1 << 8;
+  /** flag of a number with a fractional part or an exponent */
+  static final int FLOATING = 1 << 9;
+
+  private static final int KIND_MASK = 0xFF;
+  private static final int STRIDE = 4;
+
+  private final String text;
+  private int[] tape = new int[STRIDE * 64];
+  private int size;
+
+  private StructuralIndex(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Computes the structural index of a JSON text.
+   *
+   * @param text a JSON text
+   * @return the structural index of the text
+   * @throws IllegalStateException if the text is not a valid JSON text
+   */
+  static StructuralIndex of(String text) {
+    var index = new StructuralIndex(text);
+    index.scan();
+    return index;
+  }
+
+  String text() {
+    return text;
+  }
+
+  /**
+   * Returns the number of entries.
+   * @return the number of entries.
+   */
+  int size() {
+    return size;
+  }
+
+  int kind(int entry) {
+    return tape[entry * STRIDE] & KIND_MASK;
+  }
+
+  boolean is(int entry, int flag) {
+    return (tape[entry * STRIDE] & flag) != 0;
+  }
+
+  /**
+   * Returns the offset of the first character of the entry, for a string the quote is not included.
+   * @param entry an entry
+   * @return the offset of the first character of the entry.
+   */
+  int start(int entry) {
+    return tape[entry * STRIDE + 1];
+  }
+
+  /**
+   * Returns the offset after the last character of the entry, for a string the quote is not included.
+   * @param entry an entry
+   * @return the offset after the last character of the entry.
+   */
+  int end(int entry) {
+    return tape[entry * STRIDE + 2];
+  }
+
+  /**
+   * Returns the entry after the value, skipping the content of an object or an array.
+   * @param entry an entry
+   * @return the entry after the value.
+   */
+  int next(int entry) {
+    return tape[entry * STRIDE + 3];
+  }
+
+  /**
+   * Returns the decoded value of a string entry.
+   * @param entry a string entry
+   * @return the decoded value of a string entry.
+   */
+  String string(int entry) {
+    var value = text.substring(start(entry), end(entry));
+    return is(entry, ESCAPED) ? ToyJSONParser.unescape(value, start(entry)) : value;
+  }
+
+  /**
+   * Returns true if the string entry is equals to the key, without decoding the string
+   * if it contains no escape sequence.
+   * @param entry a string entry
+   * @param key a key
+   * @return true if the string entry is equals to the key.
+   */
+  boolean stringEquals(int entry, String key) {
+    if (is(entry, ESCAPED)) {
+      return string(entry).equals(key);
+    }
+    var start = start(entry);
+    return end(entry) - start == key.length() && text.regionMatches(start, key, 0, key.length());
+  }
+
+  private int append(int kind, int start, int end) {
+    if (size * STRIDE == tape.length) {
+      tape = Arrays.copyOf(tape, tape.length << 1);
+    }
+    var entry = size++;
+    var offset = entry * STRIDE;
+    tape[offset] = kind;
+    tape[offset + 1] = start;
+    tape[offset + 2] = end;
+    tape[offset + 3] = size;
+    return entry;
+  }
+
+  private IllegalStateException error(String message, int pos) {
+    return new IllegalStateException(message + " at " + pos);
+  }
+
+  private char charAt(int pos) {
+    if (pos >= text.length()) {
+      throw error("unexpected end of text", pos);
+    }
+    return text.charAt(pos);
+  }
+
+  private int skipBlanks(int pos) {
+    while (pos < text.length()) {
+      switch (text.charAt(pos)) {
+        case ' ', '\t', '\n', '\r' -> pos++;
+        default -> {
+          return pos;
+        }
+      }
+    }
+    return pos;
+  }
+
+  private void scan() {
+    var stack = new int[16];
+    var depth = 0;
+    var pos = skipBlanks(0);
+    for(;;) {
+      // parse a value
+      var c = charAt(pos);
+      switch (c) {
+        case '{', '[' -> {
+          var entry = append(c == '{' ? OBJECT : ARRAY, pos, -1);
+          if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth << 1);
+          }
+          stack[depth++] = entry;
+          pos = skipBlanks(pos + 1);
+          if (charAt(pos) == (c == '{' ? '}' : ']')) {
+            pos = close(stack[--depth], pos);
+            break;
+          }
+          if (c == '{') {
+            pos = member(pos);
+          }
+          continue;
+        }
+        case '"' -> pos = scanString(pos);
+        case 't' -> pos = literal(pos, "true", TRUE);
+        case 'f' -> pos = literal(pos, "false", FALSE);
+        case 'n' -> pos = literal(pos, "null", NULL);
+        default -> {
+          if (c != '-' && (c < '0' || c > '9')) {
+            throw error("unexpected character '" + c + "'", pos);
+          }
+          pos = number(pos);
+        }
+      }
+      // after a value
+      for(;;) {
+        pos = skipBlanks(pos);
+        if (depth == 0) {
+          if (pos != text.length()) {
+            throw error("unexpected character '" + text.charAt(pos) + "'", pos);
+          }
+          return;
+        }
+        var container = stack[depth - 1];
+        var separator = charAt(pos);
+        if (separator == ',') {
+          pos = skipBlanks(pos + 1);
+          if (kind(container) == OBJECT) {
+            pos = member(pos);
+          }
+          break;
+        }
+        if (separator != (kind(container) == OBJECT ? '}' : ']')) {
+          throw error("unexpected character '" + separator + "'", pos);
+        }
+        pos = close(container, pos);
+        depth--;
+      }
+    }
+  }
+
+  private int close(int container, int pos) {
+    var offset = container * STRIDE;
+    tape[offset + 2] = pos + 1;
+    tape[offset + 3] = size;
+    return pos + 1;
+  }
+
+  private int member(int pos) {
+    if (charAt(pos) != '"') {
+      throw error("expect a key", pos);
+    }
+    pos = skipBlanks(scanString(pos));
+    if (charAt(pos) != ':') {
+      throw error("expect ':'", pos);
+    }
+    return skipBlanks(pos + 1);
+  }
+
+  private int scanString(int pos) {
+    var flags = STRING;
+    var i = pos + 1;
+    for(;;) {
+      var c = charAt(i);
+      if (c == '"') {
+        break;
+      }
+      if (c == '\\') {
+        flags |= ESCAPED;
+        i += 2;
+        continue;
+      }
+      i++;
+    }
+    append(flags, pos + 1, i);
+    return i + 1;
+  }
+
+  private int literal(int pos, String literal, int kind) {
+    if (!text.startsWith(literal, pos)) {
+      throw error("unexpected character '" + text.charAt(pos) + "'", pos);
+    }
+    var end = pos + literal.length();
+    append(kind, pos, end);
+    return end;
+  }
+
+  private int digits(int pos) {
+    var i = pos;
+    while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+      i++;
+    }
+    if (i == pos) {
+      throw error("expect a digit", pos);
+    }
+    return i;
+  }
+
+  private int number(int pos) {
+    var flags = NUMBER;
+    var i = pos;
+    if (text.charAt(i) == '-') {
+      i++;
+    }
+    i = digits(i);
+    if (i < text.length() && text.charAt(i) == '.') {
+      flags |= FLOATING;
+      i = digits(i + 1);
+    }
+    if (i < text.length() && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+      flags |= FLOATING;
+      i++;
+      if (i < text.length() && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+        i++;
+      }
+      i = digits(i);
+    }
+    append(flags, pos, i);
+    return i;
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.forax.framework.mapper;
+
+/**
+ * The line and the column (both starting at 1) of an offset in a JSON text.
+ *
+ * A location is only computed when an error is reported, so a successful parsing only
+ * has to track an offset. The description of a location includes an excerpt of the line
+ * around the offset, the excerpt is bounded so the message stays short even if the text is large
+ * or is on a single line.
+ *
+ * @param line the line number
+ * @param column the column number
+ */
+record TextLocation(int line, int column) {
+  /**
+   * The maximum number of characters of the excerpt before and after the offset.
+   */
+  private static final int CONTEXT = 32;
+
+  /**
+   * Computes the line and the column of an offset in a text.
+   *
+   * @param text a text
+   * @param offset an offset in the text, the length of the text denotes the end of the text
+   * @return the location of the offset
+   */
+  static TextLocation of(String text, int offset) {
+    var line = 1;
+    var lineStart = 0;
+    for(var i = 0; i < offset; i++) {
+      if (text.charAt(i) == '\n') {
+        line++;
+        lineStart = i + 1;
+      }
+    }
+    return new TextLocation(line, offset - lineStart + 1);
+  }
+
+  /**
+   * Returns a message describing an error at an offset of a text,
+   * with the line, the column and an excerpt of the line that points to the offset.
+   *
+   * @param message the message of the error
+   * @param text a text
+   * @param offset the offset of the error in the text
+   * @return a message describing the error
+   */
+  static String describe(String message, String text, int offset) {
+    offset = Math.clamp(offset, 0, text.length());
+    var location = of(text, offset);
+    var lineStart = offset - location.column + 1;
+    var lineEnd = text.indexOf('\n', offset);
+    if (lineEnd == -1) {
+      lineEnd = text.length();
+    }
+    if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+      lineEnd--;
+    }
+    var start = Math.max(lineStart, offset - CONTEXT);
+    var end = Math.max(offset, Math.min(lineEnd, offset + CONTEXT));
+    var prefix = start == lineStart ? "" : "...";
+    var suffix = end >= lineEnd ? "" : "...";
+    var excerpt = text.substring(start, end).replace('\t', ' ');
+    return message + " at line " + location.line + ", column " + location.column + "\n"
+        + prefix + excerpt + suffix + "\n"
+        + " ".repeat(prefix.length() + offset - start) + "^";
+  }
+}
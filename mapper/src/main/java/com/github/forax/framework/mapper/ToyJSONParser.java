@@ -1,7 +1,6 @@
 package com.github.forax.framework.mapper;
 
 import static java.lang.Double.parseDouble;
-import static java.lang.Integer.parseInt;
 import static java.util.regex.Pattern.compile;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.IntStream.rangeClosed;
@@ -12,12 +11,18 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * A Toy JSON parser that do not recognize correctly, unicode characters, escaped strings
- * and i'm sure many more features.
+ * A Toy JSON parser that do not recognize correctly many features of JSON.
+ * Escaped characters inside strings (including {@code \\uXXXX} and surrogate pairs) are decoded.
+ *
+ * The {@link JSONLimits} are checked while parsing, a string or a number is rejected
+ * once its length is above the limit and an object or an array once it is nested too deeply
+ * or has too many elements.
+ * The parser is recursive, {@link #parseIterative(String, JSONVisitor, JSONLimits)} uses
+ * an explicit stack instead, so the depth is not bounded by the size of the thread stack.
  *
  * @see #parse(String, JSONVisitor)
  */
-class ToyJSONParser {
+public final class ToyJSONParser {
   private ToyJSONParser() {
     throw new AssertionError();
   }
@@ -26,16 +31,17 @@ class ToyJSONParser {
     NULL("(null)"),
     TRUE("(true)"),
     FALSE("(false)"),
-    DOUBLE("([0-9]*\\.[0-9]*)"),
-    INTEGER("([0-9]+)"),
-    STRING("\"([^\\\"]*)\""),
+    // the JSON grammar of a number, a fraction or an exponent makes it a double
+    DOUBLE("(-?+(?:0|[1-9][0-9]*+)(?:\\.[0-9]++(?:[eE][+-]?+[0-9]++)?+|[eE][+-]?+[0-9]++))"),
+    INTEGER("(-?+(?:0|[1-9][0-9]*+))"),
+    STRING("(\")"),  // the content of a string is scanned by the lexer
     LEFT_CURLY("(\\{)"),
     RIGHT_CURLY("(\\})"),
     LEFT_BRACKET("(\\[)"),
     RIGHT_BRACKET("(\\])"),
     COLON("(\\:)"),
     COMMA("(\\,)"),
-    BLANK("([ \t]+)")
+    BLANK("([ \t\n\r]++)")
     ;
 
     private final String regex;
@@ -60,23 +66,187 @@ class ToyJSONParser {
     }
 
     public IllegalStateException error(Kind... expectedKinds) {
-      return new IllegalStateException("expect " + Arrays.stream(expectedKinds).map(Kind::name).collect(joining(", ")) + " but recognized " + kind + " at " + location);
+      return new IllegalStateException("expect " + Arrays.stream(expectedKinds).map(Kind::name).collect(joining(", ")) + " but recognized " + kind);
     }
   }
 
-  private record Lexer(Matcher matcher) {
+  private static final class Lexer {
+    private final String input;
+    private final int end;
+    private final Matcher matcher;
+    private final JSONLimits limits;
+    private int position;  // start of the next token
+    private int depth;
+    private int location;  // location of the last token, only used to report an error
+
+    private Lexer(String input, int start, int end, JSONLimits limits) {
+      this.input = input;
+      this.end = end;
+      this.matcher = PATTERN.matcher(input);
+      this.limits = limits;
+      this.position = start;
+    }
+
     private Token next() {
+      return next(null, false);
+    }
+
+    private Token nextKey(JSONVisitor visitor) {
+      return next(visitor, true);
+    }
+
+    private Token nextValue(JSONVisitor visitor) {
+      return next(visitor, false);
+    }
+
+    private void checkEnd() {
+      // only blanks can follow the root object or array
+      while (position < end && matcher.region(position, end).lookingAt() && matcher.group(Kind.BLANK.ordinal() + 1) != null) {
+        position = matcher.end();
+      }
+      if (position != end) {
+        location = position;
+        throw new IllegalStateException("unexpected character '" + input.charAt(position) + "' after the end of the text");
+      }
+    }
+
+    private Token next(JSONVisitor visitor, boolean isKey) {
       for(;;) {
-        if (!matcher.find()) {
-          throw new IllegalStateException("no token recognized");
+        // a token must start at the current position, an unknown character is an error, not skipped
+        location = position;
+        if (position == end) {
+          throw new IllegalStateException("unexpected end of text");
         }
+        if (!matcher.region(position, end).lookingAt()) {
+          throw new IllegalStateException("unexpected character '" + input.charAt(position) + "'");
+        }
+        position = matcher.end();
         var index = rangeClosed(1, matcher.groupCount()).filter(i -> matcher.group(i) != null).findFirst().orElseThrow();
         var kind = Kind.VALUES[index - 1];
         if (kind != Kind.BLANK) {
-          return new Token(kind, matcher.group(index), matcher.start(index));
+          var start = matcher.start(index);
+          switch (kind) {
+            case STRING -> {
+              return new Token(kind, string(visitor, isKey, start + 1), start);
+            }
+            case INTEGER, DOUBLE -> limits.checkNumberLength(matcher.end(index) - start);
+            case LEFT_CURLY, LEFT_BRACKET -> limits.checkDepth(++depth);
+            case RIGHT_CURLY, RIGHT_BRACKET -> depth--;
+            default -> {}
+          }
+          return new Token(kind, matcher.group(index), start);
+        }
+      }
+    }
+
+    private String string(JSONVisitor visitor, boolean isKey, int start) {
+      // scan up to the closing quote, so a string too long is rejected without reading the rest of it
+      var backslash = false;
+      var index = start;
+      for(;;) {
+        if (index >= end) {
+          throw new IllegalStateException("unterminated string");
+        }
+        limits.checkStringLength(index - start);
+        var c = input.charAt(index);
+        if (c == '"') {
+          break;
+        }
+        if (c == '\\') {
+          backslash = true;
+          index++;
+        }
+        index++;
+      }
+      position = index + 1;
+      if (visitor != null && !backslash) {
+        // a known key or a canonical value is resolved from the input characters without allocating a string
+        var string = isKey ? visitor.key(input, start, index) : visitor.string(input, start, index);
+        if (string != null) {
+          return string;
+        }
+      }
+      return unescape(input.substring(start, index), start);
+    }
+  }
+
+  /**
+   * Decode the escaped characters of a string.
+   * If the string contains no backslash, the text is returned as is, otherwise a builder is used.
+   *
+   * @param text the content of the string without the quotes
+   * @param location the location of the string in the input, used to report errors
+   * @return the decoded string
+   */
+  static String unescape(String text, int location) {
+    var backslash = text.indexOf('\\');
+    if (backslash == -1) {
+      return text;
+    }
+    var builder = new StringBuilder(text.length());
+    builder.append(text, 0, backslash);
+    for(var i = backslash; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c != '\\') {
+        builder.append(c);
+        continue;
+      }
+      if (++i == text.length()) {
+        throw new IllegalStateException("unterminated escape sequence at " + (location + i));
+      }
+      var escaped = text.charAt(i);
+      switch (escaped) {
+        case '"', '\\', '/' -> builder.append(escaped);
+        case 'b' -> builder.append('\b');
+        case 'f' -> builder.append('\f');
+        case 'n' -> builder.append('\n');
+        case 'r' -> builder.append('\r');
+        case 't' -> builder.append('\t');
+        case 'u' -> {
+          if (i + 4 >= text.length()) {
+            throw new IllegalStateException("invalid unicode escape sequence at " + (location + i - 1));
+          }
+          var codeUnit = 0;
+          for(var j = i + 1; j <= i + 4; j++) {
+            var digit = Character.digit(text.charAt(j), 16);
+            if (digit == -1) {
+              throw new IllegalStateException("invalid unicode escape sequence at " + (location + i - 1));
+            }
+            codeUnit = codeUnit << 4 | digit;
+          }
+          // a surrogate pair is encoded as two escape sequences, appending each code unit recombines them
+          builder.append((char) codeUnit);
+          i += 4;
         }
+        default -> throw new IllegalStateException("invalid escape sequence \\" + escaped + " at " + (location + i - 1));
       }
     }
+    return builder.toString();
+  }
+
+  /**
+   * Report an integer of the input to the visitor, with {@link JSONVisitor#intValue(String, int)}
+   * if it fits in an int, with {@link JSONVisitor#longValue(String, long)} otherwise.
+   *
+   * @param input the JSON text
+   * @param start the start index of the integer in the input (inclusive)
+   * @param end the end index of the integer in the input (exclusive)
+   * @param key the key of the value if inside an object, {@code null} otherwise.
+   * @param visitor the visitor to call
+   * @throws IllegalStateException if the integer does not fit in a long
+   */
+  static void integer(CharSequence input, int start, int end, String key, JSONVisitor visitor) {
+    long value;
+    try {
+      value = Long.parseLong(input, start, end, 10);
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException("integer too large " + input.subSequence(start, end), e);
+    }
+    if (value == (int) value) {
+      visitor.intValue(key, (int) value);
+    } else {
+      visitor.longValue(key, value);
+    }
   }
 
   /**
@@ -84,6 +254,34 @@ class ToyJSONParser {
    * @see #parse(String, JSONVisitor)
    */
   public interface JSONVisitor {
+    /**
+     * Called during the parsing of a key of an object, before the key is created as a string.
+     * A visitor that knows the keys of the current object can return the canonical key
+     * equals to the characters of the input, so the parser does not allocate a new string.
+     *
+     * @param input the JSON text
+     * @param start the start index of the key in the input (inclusive)
+     * @param end the end index of the key in the input (exclusive)
+     * @return the canonical key or {@code null} if the key is not known.
+     */
+    default String key(String input, int start, int end) {
+      return null;
+    }
+
+    /**
+     * Called during the parsing of a string value without escape sequence, before the value is created as a string.
+     * A visitor can return a canonical string equals to the characters of the input,
+     * so the same string value is not allocated several times.
+     *
+     * @param input the JSON text
+     * @param start the start index of the string in the input (inclusive)
+     * @param end the end index of the string in the input (exclusive)
+     * @return the canonical string or {@code null}.
+     */
+    default String string(String input, int start, int end) {
+      return null;
+    }
+
     /**
      * Called during the parsing or the content of an object or an array.
      *
@@ -92,6 +290,40 @@ class ToyJSONParser {
      */
     void value(String key, Object value);
 
+    /**
+     * Called during the parsing or the content of an object or an array when the value is an integer.
+     * By default, the value is boxed and {@link #value(String, Object)} is called.
+     *
+     * @param key the key of the value if inside an object, {@code null} otherwise.
+     * @param value the value
+     */
+    default void intValue(String key, int value) {
+      value(key, (Object) value);
+    }
+
+    /**
+     * Called during the parsing or the content of an object or an array when the value is an integer
+     * that does not fit in an int.
+     * By default, the value is boxed and {@link #value(String, Object)} is called.
+     *
+     * @param key the key of the value if inside an object, {@code null} otherwise.
+     * @param value the value
+     */
+    default void longValue(String key, long value) {
+      value(key, (Object) value);
+    }
+
+    /**
+     * Called during the parsing or the content of an object or an array when the value is a double.
+     * By default, the value is boxed and {@link #value(String, Object)} is called.
+     *
+     * @param key the key of the value if inside an object, {@code null} otherwise.
+     * @param value the value
+     */
+    default void doubleValue(String key, double value) {
+      value(key, (Object) value);
+    }
+
     /**
      * Called during the parsing at the beginning of an object.
      * @param key the key of the value if inside an object, {@code null} otherwise.
@@ -129,19 +361,81 @@ class ToyJSONParser {
 
   /**
    * Parse a JSON text and calls the visitor methods when an array, an object or a value is parsed.
+   * If the text is not valid or if the visitor throws an {@link IllegalStateException},
+   * the exception is wrapped into an {@link IllegalStateException} that reports the line and the column
+   * of the last token recognized.
    *
    * @param input a JSON text
    * @param visitor the visitor to call when parsing the JSON text
+   *
+   * @see TextLocation#describe(String, String, int)
    */
   public static void parse(String input, JSONVisitor visitor) {
-    var lexer = new Lexer(PATTERN.matcher(input));
+    parse(input, visitor, JSONLimits.DEFAULT);
+  }
+
+  /**
+   * Parse a JSON text like {@link #parse(String, JSONVisitor)} with some limits.
+   * The parser is recursive, the maximum depth should be at most {@value #MAX_RECURSIVE_DEPTH}.
+   *
+   * @param input a JSON text
+   * @param visitor the visitor to call when parsing the JSON text
+   * @param limits the limits checked when parsing the JSON text
+   *
+   * @see #parseIterative(String, JSONVisitor, JSONLimits)
+   */
+  public static void parse(String input, JSONVisitor visitor, JSONLimits limits) {
+    parse(input, 0, input.length(), visitor, limits);
+  }
+
+  /**
+   * Parse the JSON text between two indexes of an input, without copying it,
+   * an error reports the line and the column in the whole input.
+   *
+   * @param input a text containing a JSON text
+   * @param start the start index of the JSON text (inclusive)
+   * @param end the end index of the JSON text (exclusive)
+   * @param visitor the visitor to call when parsing the JSON text
+   * @param limits the limits checked when parsing the JSON text
+   */
+  static void parse(String input, int start, int end, JSONVisitor visitor, JSONLimits limits) {
+    var lexer = new Lexer(input, start, end, limits);
     try {
       parse(lexer, visitor);
+      lexer.checkEnd();
     } catch(IllegalStateException e) {
-      throw new IllegalStateException(e.getMessage() + "\n while parsing " + input, e);
+      throw new IllegalStateException(TextLocation.describe(e.getMessage(), input, lexer.location), e);
     }
   }
 
+  /**
+   * Parse a JSON text like {@link #parse(String, JSONVisitor, JSONLimits)} but using a stack of
+   * the keys and the kinds of the enclosing objects and arrays instead of recursive calls,
+   * so any maximum depth can be used.
+   *
+   * @param input a JSON text
+   * @param visitor the visitor to call when parsing the JSON text
+   * @param limits the limits checked when parsing the JSON text
+   */
+  public static void parseIterative(String input, JSONVisitor visitor, JSONLimits limits) {
+    parseIterative(input, 0, input.length(), visitor, limits);
+  }
+
+  static void parseIterative(String input, int start, int end, JSONVisitor visitor, JSONLimits limits) {
+    var lexer = new Lexer(input, start, end, limits);
+    try {
+      parseIterative(lexer, visitor);
+      lexer.checkEnd();
+    } catch(IllegalStateException e) {
+      throw new IllegalStateException(TextLocation.describe(e.getMessage(), input, lexer.location), e);
+    }
+  }
+
+  /**
+   * The maximum depth recommended for the recursive parser.
+   */
+  static final int MAX_RECURSIVE_DEPTH = 1_000;
+
   private static void parse(Lexer lexer, JSONVisitor visitor) {
     var token = lexer.next();
     switch(token.kind) {
@@ -159,12 +453,6 @@ class ToyJSONParser {
 
   private static void parseValue(String currentKey, Token token, Lexer lexer, JSONVisitor visitor) {
     switch (token.kind) {
-      case NULL -> visitor.value(currentKey, null);
-      case FALSE -> visitor.value(currentKey, false);
-      case TRUE -> visitor.value(currentKey, true);
-      case INTEGER -> visitor.value(currentKey, parseInt(token.text));
-      case DOUBLE -> visitor.value(currentKey, parseDouble(token.text));
-      case STRING -> visitor.value(currentKey, token.text);
       case LEFT_CURLY -> {
         visitor.startObject(currentKey);
         parseObject(currentKey, lexer, visitor);
@@ -173,20 +461,33 @@ class ToyJSONParser {
         visitor.startArray(currentKey);
         parseArray(currentKey, lexer, visitor);
       }
+      default -> parseScalar(currentKey, token, visitor);
+    }
+  }
+
+  private static void parseScalar(String currentKey, Token token, JSONVisitor visitor) {
+    switch (token.kind) {
+      case NULL -> visitor.value(currentKey, null);
+      case FALSE -> visitor.value(currentKey, false);
+      case TRUE -> visitor.value(currentKey, true);
+      case INTEGER -> integer(token.text, 0, token.text.length(), currentKey, visitor);
+      case DOUBLE -> visitor.doubleValue(currentKey, parseDouble(token.text));
+      case STRING -> visitor.value(currentKey, token.text);
       default -> throw token.error(NULL, FALSE, TRUE, INTEGER, DOUBLE, STRING, LEFT_BRACKET, RIGHT_CURLY);
     }
   }
 
   private static void parseObject(String currentKey, Lexer lexer, JSONVisitor visitor) {
-    var token = lexer.next();
+    var token = lexer.nextKey(visitor);
     if (token.is(RIGHT_CURLY)) {
       visitor.endObject(currentKey);
       return;
     }
-    for(;;) {
+    for(var size = 1;; size++) {
+      lexer.limits.checkContainerSize(size);
       var key = token.expect(STRING);
       lexer.next().expect(COLON);
-      token = lexer.next();
+      token = lexer.nextValue(visitor);
       parseValue(key, token, lexer, visitor);
       token = lexer.next();
       if (token.is(RIGHT_CURLY)) {
@@ -194,17 +495,18 @@ class ToyJSONParser {
         return;
       }
       token.expect(COMMA);
-      token = lexer.next();
+      token = lexer.nextKey(visitor);
     }
   }
 
   private static void parseArray(String currentKey, Lexer lexer, JSONVisitor visitor) {
-    var token = lexer.next();
+    var token = lexer.nextValue(visitor);
     if (token.is(RIGHT_BRACKET)) {
       visitor.endArray(currentKey);
       return;
     }
-    for(;;) {
+    for(var size = 1;; size++) {
+      lexer.limits.checkContainerSize(size);
       parseValue(null, token, lexer, visitor);
       token = lexer.next();
       if (token.is(RIGHT_BRACKET)) {
@@ -212,7 +514,85 @@ class ToyJSONParser {
         return;
       }
       token.expect(COMMA);
-      token = lexer.next();
+      token = lexer.nextValue(visitor);
     }
   }
-}
\ No newline at end of file
+
+  private static void parseIterative(Lexer lexer, JSONVisitor visitor) {
+    // the key, the kind (object or array) and the size of each enclosing object or array
+    var keys = new String[16];
+    var objects = new boolean[16];
+    var sizes = new int[16];
+    var depth = 0;
+    var token = lexer.next();
+    if (!token.is(LEFT_CURLY) && !token.is(LEFT_BRACKET)) {
+      throw token.error(LEFT_CURLY, LEFT_BRACKET);
+    }
+    String key = null;
+    for(;;) {
+      // parse a value
+      if (token.is(LEFT_CURLY) || token.is(LEFT_BRACKET)) {
+        var isObject = token.is(LEFT_CURLY);
+        if (depth == keys.length) {
+          keys = Arrays.copyOf(keys, depth << 1);
+          objects = Arrays.copyOf(objects, depth << 1);
+          sizes = Arrays.copyOf(sizes, depth << 1);
+        }
+        keys[depth] = key;
+        sizes[depth] = 1;
+        objects[depth++] = isObject;
+        if (isObject) {
+          visitor.startObject(key);
+          token = lexer.nextKey(visitor);
+          if (!token.is(RIGHT_CURLY)) {
+            key = member(token, lexer);
+            token = lexer.nextValue(visitor);
+            continue;
+          }
+          depth--;
+          visitor.endObject(key);
+        } else {
+          visitor.startArray(key);
+          token = lexer.nextValue(visitor);
+          if (!token.is(RIGHT_BRACKET)) {
+            key = null;
+            continue;
+          }
+          depth--;
+          visitor.endArray(key);
+        }
+      } else {
+        parseScalar(key, token, visitor);
+      }
+      // after a value, close the enclosing objects and arrays until a comma
+      for(;;) {
+        if (depth == 0) {
+          return;
+        }
+        var isObject = objects[depth - 1];
+        token = lexer.next();
+        if (token.is(COMMA)) {
+          lexer.limits.checkContainerSize(++sizes[depth - 1]);
+          key = isObject ? member(lexer.nextKey(visitor), lexer) : null;
+          token = lexer.nextValue(visitor);
+          break;
+        }
+        if (!token.is(isObject ? RIGHT_CURLY : RIGHT_BRACKET)) {
+          throw token.error(COMMA, isObject ? RIGHT_CURLY : RIGHT_BRACKET);
+        }
+        key = keys[--depth];
+        if (isObject) {
+          visitor.endObject(key);
+        } else {
+          visitor.endArray(key);
+        }
+      }
+    }
+  }
+
+  private static String member(Token token, Lexer lexer) {
+    var key = token.expect(STRING);
+    lexer.next().expect(COLON);
+    return key;
+  }
+}
@@ -1,8 +1,5 @@
 package com.github.forax.framework.mapper;
 
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.InvocationTargetException;
@@ -22,14 +19,6 @@ final class Utils {
     throw new AssertionError();
   }
 
-  public static BeanInfo beanInfo(Class<?> beanType) {
-    try {
-      return Introspector.getBeanInfo(beanType);
-    } catch (IntrospectionException e) {
-      throw new IllegalStateException(e);
-    }
-  }
-
   public static Object invokeMethod(Object instance, Method method, Object... args) {
     try {
       return method.invoke(instance, args);
@@ -83,7 +72,8 @@ final class Utils {
       case ParameterizedType parameterizedType -> erase(parameterizedType.getRawType());
       case GenericArrayType genericArrayType -> erase(genericArrayType.getGenericComponentType()).arrayType();
       case TypeVariable<?> typeVariable -> erase(typeVariable.getBounds()[0]);
-      case WildcardType wildcardType -> erase(wildcardType.getLowerBounds()[0]);
+      case WildcardType wildcardType -> erase(wildcardType.getLowerBounds().length == 0 ?
+          wildcardType.getUpperBounds()[0] : wildcardType.getLowerBounds()[0]);
       default -> throw new AssertionError("unknown type " + type.getTypeName());
     };
   }
@@ -0,0 +1,89 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BeanPropertyTest {
+  @SuppressWarnings("unused")
+  public static class Bean {
+    public String getName() {
+      return null;
+    }
+    public void setName(String name) { }
+
+    public boolean isActive() {
+      return false;
+    }
+    public void setActive(boolean active) { }
+
+    public int getURL() {
+      return 0;
+    }
+
+    public void setCount(int count) { }
+
+    @JSONProperty("zip-code")
+    public String getZipCode() {
+      return null;
+    }
+    public void setZipCode(String zipCode) { }
+
+    public static String getStatic() {
+      return null;
+    }
+    public String getWithParameter(int index) {
+      return null;
+    }
+    public int setNotVoid(int value) {
+      return value;
+    }
+    public void set(int value) { }
+  }
+
+  public record Point(@JSONProperty("X") int x, int y) { }
+
+  private static List<String> names(Class<?> type) {
+    return BeanProperty.properties(type).stream().map(BeanProperty::name).toList();
+  }
+
+  @Test
+  public void beanProperties() {
+    var properties = BeanProperty.properties(Bean.class);
+    assertAll(
+        () -> assertEquals(List.of("URL", "active", "count", "name", "zipCode"), names(Bean.class)),
+        () -> assertEquals("zip-code", properties.get(4).key()),
+        () -> assertNull(properties.get(0).setter()),
+        () -> assertNull(properties.get(2).getter()),
+        () -> assertEquals("isActive", properties.get(1).getter().getName()),
+        () -> assertNotNull(properties.get(3).setter())
+    );
+  }
+
+  @Test
+  public void recordProperties() {
+    var properties = BeanProperty.properties(Point.class);
+    assertAll(
+        () -> assertEquals(List.of("x", "y"), names(Point.class)),
+        () -> assertEquals(List.of("X", "y"), properties.stream().map(BeanProperty::key).toList()),
+        () -> assertEquals("x", properties.get(0).getter().getName()),
+        () -> assertNull(properties.get(0).setter())
+    );
+  }
+
+  @Test
+  public void noPropertyFromObject() {
+    assertEquals(List.of(), BeanProperty.properties(Object.class));
+  }
+
+  @Test
+  public void computedOnce() {
+    assertSame(BeanProperty.properties(Bean.class), BeanProperty.properties(Bean.class));
+  }
+}
@@ -0,0 +1,305 @@
+package com.github.forax.framework.mapper;
+
+import com.github.forax.framework.mapper.ToyJSONParser.JSONVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CBORTest {
+  private static String hex(byte[] bytes) {
+    return HexFormat.of().formatHex(bytes);
+  }
+
+  private static byte[] bytes(String hex) {
+    return HexFormat.of().parseHex(hex);
+  }
+
+  private static List<String> events(JSONVisitorConsumer parser) {
+    var events = new ArrayList<String>();
+    parser.accept(new JSONVisitor() {
+      @Override
+      public void value(String key, Object value) {
+        events.add("value " + key + " " + value);
+      }
+
+      @Override
+      public void startObject(String key) {
+        events.add("startObject " + key);
+      }
+
+      @Override
+      public void endObject(String key) {
+        events.add("endObject " + key);
+      }
+
+      @Override
+      public void startArray(String key) {
+        events.add("startArray " + key);
+      }
+
+      @Override
+      public void endArray(String key) {
+        events.add("endArray " + key);
+      }
+    });
+    return events;
+  }
+
+  @FunctionalInterface
+  private interface JSONVisitorConsumer {
+    void accept(JSONVisitor visitor);
+  }
+
+  @SuppressWarnings("unused")
+  public static class Measure {
+    private String name;
+    private int count;
+    private long total;
+    private double ratio;
+    private boolean valid;
+    private List<Integer> samples;
+
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+    public int getCount() {
+      return count;
+    }
+    public void setCount(int count) {
+      this.count = count;
+    }
+    public long getTotal() {
+      return total;
+    }
+    public void setTotal(long total) {
+      this.total = total;
+    }
+    public double getRatio() {
+      return ratio;
+    }
+    public void setRatio(double ratio) {
+      this.ratio = ratio;
+    }
+    public boolean isValid() {
+      return valid;
+    }
+    public void setValid(boolean valid) {
+      this.valid = valid;
+    }
+    public List<Integer> getSamples() {
+      return samples;
+    }
+    public void setSamples(List<Integer> samples) {
+      this.samples = samples;
+    }
+  }
+
+  @Test
+  public void writeScalars() {
+    // examples from the appendix A of RFC 8949
+    var writer = new CBORWriter();
+    assertAll(
+        () -> assertEquals("00", hex(writer.toCBOR(0))),
+        () -> assertEquals("17", hex(writer.toCBOR(23))),
+        () -> assertEquals("1818", hex(writer.toCBOR(24))),
+        () -> assertEquals("1903e8", hex(writer.toCBOR(1000))),
+        () -> assertEquals("1b000000e8d4a51000", hex(writer.toCBOR(1_000_000_000_000L))),
+        () -> assertEquals("20", hex(writer.toCBOR(-1))),
+        () -> assertEquals("3903e7", hex(writer.toCBOR(-1000))),
+        () -> assertEquals("fb3ff199999999999a", hex(writer.toCBOR(1.1))),
+        () -> assertEquals("fa47c35000", hex(writer.toCBOR(100000.0))),
+        () -> assertEquals("f4", hex(writer.toCBOR(false))),
+        () -> assertEquals("f5", hex(writer.toCBOR(true))),
+        () -> assertEquals("f6", hex(writer.toCBOR(null))),
+        () -> assertEquals("6161", hex(writer.toCBOR("a"))),
+        () -> assertEquals("62c3bc", hex(writer.toCBOR("ü"))),
+        () -> assertEquals("4401020304", hex(writer.toCBOR(new byte[] { 1, 2, 3, 4 })))
+    );
+  }
+
+  @Test
+  public void writeContainers() {
+    var writer = new CBORWriter();
+    var map = new LinkedHashMap<String, Object>();
+    map.put("a", 1);
+    map.put("b", List.of(2, 3));
+    assertAll(
+        () -> assertEquals("80", hex(writer.toCBOR(List.of()))),
+        () -> assertEquals("83010203", hex(writer.toCBOR(List.of(1, 2, 3)))),
+        () -> assertEquals("a26161016162820203", hex(writer.toCBOR(map))),
+        () -> assertEquals("83010203", hex(writer.toCBOR(new int[] { 1, 2, 3 }))),
+        () -> assertEquals("82f5f4", hex(writer.toCBOR(new boolean[] { true, false }))),
+        () -> assertEquals("6161", hex(writer.toCBOR('a')))
+    );
+  }
+
+  @Test
+  public void sameEventsAsToyJSONParser() {
+    var writer = new CBORWriter();
+    var map = new LinkedHashMap<String, Object>();
+    map.put("a", 1);
+    map.put("b", List.of(2.5, "foo"));
+    map.put("c", Map.of());
+    map.put("d", true);
+    map.put("e", null);
+    var json = """
+        { "a": 1, "b": [ 2.5, "foo" ], "c": {}, "d": true, "e": null }
+        """;
+    assertEquals(
+        events(visitor -> ToyJSONParser.parse(json, visitor)),
+        events(visitor -> CBORParser.parse(writer.toCBOR(map), visitor)));
+  }
+
+  @Test
+  public void parseIndefiniteLengthsAndTags() {
+    // {_ "a": 1, "b": [_ 2, 3]} and a tagged text string chunked in two
+    assertAll(
+        () -> assertEquals(
+            List.of("startObject null", "value a 1", "startArray b", "value null 2", "value null 3", "endArray b", "endObject null"),
+            events(visitor -> CBORParser.parse(bytes("bf61610161629f0203ffff"), visitor))),
+        () -> assertEquals(
+            List.of("startArray null", "value null foobar", "endArray null"),
+            events(visitor -> CBORParser.parse(bytes("81c07f63666f6f63626172ff"), visitor)))
+    );
+  }
+
+  @Test
+  public void parseHalfPrecisionAndLargeIntegers() {
+    assertEquals(
+        List.of("startArray null", "value null 1.5", "value null 1000000000000", "value null -4294967297", "endArray null"),
+        events(visitor -> CBORParser.parse(bytes("83f93e001b000000e8d4a510003b0000000100000000"), visitor)));
+  }
+
+  @Test
+  public void parseInvalid() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes(""), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("01"), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("8301"), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("a10102"), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("9bffffffffffffffff"), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("8001"), visitor)))
+    );
+  }
+
+  @Test
+  public void parseDeeplyNestedArrays() {
+    var nested = "81".repeat(CBORParser.MAX_DEPTH - 1) + "80";
+    var tooNested = "81".repeat(200_000) + "80";
+    assertAll(
+        () -> assertEquals(2 * CBORParser.MAX_DEPTH, events(visitor -> CBORParser.parse(bytes(nested), visitor)).size()),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes(tooNested), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("a16161".repeat(200_000) + "80"), visitor)))
+    );
+  }
+
+  @Test
+  public void parseWithLimits() {
+    var limits = new JSONLimits(2, 3, 1_000, 2);
+    assertAll(
+        // [[1, 2], "abc"] is within the limits
+        () -> assertEquals(
+            List.of("startArray null", "startArray null", "value null 1", "value null 2", "endArray null", "value null abc", "endArray null"),
+            events(visitor -> CBORParser.parse(bytes("8282010263616263"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("83010203"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("9f010203ff"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("a3616101616202616303"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("81818100"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("816461626364"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("817f6261626262ff"), visitor, limits))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("814401020304"), visitor, limits)))
+    );
+  }
+
+  @Test
+  public void parseLongTagChains() {
+    assertAll(
+        () -> assertEquals(
+            List.of("startArray null", "value null 1", "endArray null"),
+            events(visitor -> CBORParser.parse(bytes("81" + "c0".repeat(200_000) + "01"), visitor))),
+        () -> assertThrows(IllegalStateException.class, () -> events(visitor -> CBORParser.parse(bytes("81" + "c0".repeat(200_000)), visitor)))
+    );
+  }
+
+  @Test
+  public void roundTrip() {
+    var measure = new Measure();
+    measure.setName("latency");
+    measure.setCount(3);
+    measure.setTotal(10_000_000_000L);
+    measure.setRatio(0.75);
+    measure.setValid(true);
+    measure.setSamples(List.of(1, 2, 300));
+    var data = new CBORWriter().toCBOR(measure);
+    var result = new JSONReader().parseCBOR(data, Measure.class);
+    assertAll(
+        () -> assertEquals("latency", result.name),
+        () -> assertEquals(3, result.count),
+        () -> assertEquals(10_000_000_000L, result.total),
+        () -> assertEquals(0.75, result.ratio),
+        () -> assertTrue(result.valid),
+        () -> assertEquals(List.of(1, 2, 300), result.samples)
+    );
+  }
+
+  public enum Unit { SECOND, MILLISECOND }
+
+  @SuppressWarnings("unused")
+  public static class Series {
+    private int[] counts;
+    private double[] values;
+    private Unit unit;
+
+    public int[] getCounts() {
+      return counts;
+    }
+    public void setCounts(int[] counts) {
+      this.counts = counts;
+    }
+    public double[] getValues() {
+      return values;
+    }
+    public void setValues(double[] values) {
+      this.values = values;
+    }
+    public Unit getUnit() {
+      return unit;
+    }
+    public void setUnit(Unit unit) {
+      this.unit = unit;
+    }
+  }
+
+  @Test
+  public void roundTripPrimitiveArraysAndEnum() {
+    var series = new Series();
+    series.setCounts(new int[] { 1, -2, 70_000 });
+    series.setValues(new double[] { 0.5, 1.1, -3 });
+    series.setUnit(Unit.MILLISECOND);
+    var result = new JSONReader().parseCBOR(new CBORWriter().toCBOR(series), Series.class);
+    assertAll(
+        () -> assertArrayEquals(new int[] { 1, -2, 70_000 }, result.counts),
+        () -> assertArrayEquals(new double[] { 0.5, 1.1, -3 }, result.values),
+        () -> assertEquals(Unit.MILLISECOND, result.unit)
+    );
+  }
+
+  @Test
+  public void parseCBORPrimitiveArray() {
+    var reader = new JSONReader();
+    assertArrayEquals(new long[] { 1, 10_000_000_000L }, reader.parseCBOR(new CBORWriter().toCBOR(List.of(1, 10_000_000_000L)), long[].class));
+  }
+}
@@ -0,0 +1,76 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+  @Test
+  public void bucketsAreContiguous() {
+    for(var value = 0L; value < 100_000; value++) {
+      var index = Histogram.index(value);
+      var lowest = Histogram.lowestValue(index);
+      var next = Histogram.lowestValue(index + 1);
+      var v = value;
+      assertTrue(lowest <= value && value < next, () -> "value " + v + " index " + index);
+    }
+  }
+
+  @Test
+  public void relativeError() {
+    for(var value : new long[] { 9, 1_000, 123_456_789, Long.MAX_VALUE }) {
+      var lowest = Histogram.lowestValue(Histogram.index(value));
+      assertTrue(value - lowest <= value / 8, () -> "value " + value + " lowest " + lowest);
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    var histogram = new Histogram();
+    for(var value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+    assertAll(
+        () -> assertEquals(100, histogram.count()),
+        () -> assertEquals(100, histogram.max()),
+        () -> assertEquals(50.5, histogram.mean()),
+        () -> assertEquals(1, histogram.valueAtPercentile(0)),
+        () -> assertEquals(48, histogram.valueAtPercentile(50)),
+        () -> assertEquals(96, histogram.valueAtPercentile(100))
+    );
+  }
+
+  @Test
+  public void empty() {
+    var histogram = new Histogram();
+    assertAll(
+        () -> assertEquals(0, histogram.count()),
+        () -> assertEquals(0, histogram.max()),
+        () -> assertEquals(0.0, histogram.mean()),
+        () -> assertEquals(0, histogram.valueAtPercentile(99))
+    );
+  }
+
+  @Test
+  public void negativeValueIsRecordedAsZero() {
+    var histogram = new Histogram();
+    histogram.record(-3);
+    assertAll(
+        () -> assertEquals(1, histogram.count()),
+        () -> assertEquals(0, histogram.valueAtPercentile(50))
+    );
+  }
+
+  @Test
+  public void invalidPercentile() {
+    var histogram = new Histogram();
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(-1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(100.5)),
+        () -> assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(Double.NaN))
+    );
+  }
+}
@@ -0,0 +1,209 @@
+package com.github.forax.framework.mapper;
+
+import com.github.forax.framework.mapper.ToyJSONParser.JSONVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedJSONParserTest {
+  private static List<String> toyEvents(String text) {
+    var events = new ArrayList<String>();
+    ToyJSONParser.parse(text, recorder(events));
+    return events;
+  }
+
+  private static List<String> indexedEvents(String text) {
+    var events = new ArrayList<String>();
+    IndexedJSONParser.parse(text, recorder(events));
+    return events;
+  }
+
+  private static JSONVisitor recorder(List<String> events) {
+    return new JSONVisitor() {
+      @Override
+      public void value(String key, Object value) {
+        events.add("value " + key + " " + value + (value == null ? "" : " " + value.getClass().getSimpleName()));
+      }
+
+      @Override
+      public void startObject(String key) {
+        events.add("startObject " + key);
+      }
+
+      @Override
+      public void endObject(String key) {
+        events.add("endObject " + key);
+      }
+
+      @Override
+      public void startArray(String key) {
+        events.add("startArray " + key);
+      }
+
+      @Override
+      public void endArray(String key) {
+        events.add("endArray " + key);
+      }
+    };
+  }
+
+  @Test
+  public void sameEventsAsToyJSONParser() {
+    var texts = List.of(
+        "{}",
+        "[ ]",
+        """
+        {
+          "key1": null,
+          "key2": false,
+          "key3": true,
+          "key4": 123,
+          "key5": 145.4,
+          "key6": "string",
+          "key7": { "nested": [ 1, [ 2, {} ], "3" ] },
+          "key8": []
+        }
+        """,
+        """
+        [ "with, [structural] {characters}: inside", "quote \\" and \\\\", "\\u00e9" ]
+        """
+    );
+    assertAll(texts.stream().map(text -> () -> assertEquals(toyEvents(text), indexedEvents(text))));
+  }
+
+  @Test
+  public void integersLargerThanAnInt() {
+    var text = "[ 2147483647, 2147483648, 1700000000000, 9223372036854775807 ]";
+    assertAll(
+        () -> assertEquals(List.of("startArray null", "value null 2147483647 Integer", "value null 2147483648 Long",
+            "value null 1700000000000 Long", "value null 9223372036854775807 Long", "endArray null"), toyEvents(text)),
+        () -> assertEquals(toyEvents(text), indexedEvents(text)),
+        () -> assertThrows(IllegalStateException.class, () -> toyEvents("[ 9223372036854775808 ]")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ 9223372036854775808 ]"))
+    );
+  }
+
+  @Test
+  public void sameNumbersAsToyJSONParser() {
+    var text = "[ 0, -0, 5, -5, 12.5, -12.5, 0.25, 1e3, 1E3, 1e+3, -1e-3, 2.5e10, -0.5E-2, 2147483648, -2147483649 ]";
+    assertAll(
+        () -> assertEquals(toyEvents(text), indexedEvents(text)),
+        () -> assertEquals(List.of("startArray null", "value null -5 Integer", "value null -0.001 Double",
+            "value null -2147483649 Long", "endArray null"), toyEvents("[ -5, -1e-3, -2147483649 ]"))
+    );
+  }
+
+  @Test
+  public void sameInvalidScalarsAsToyJSONParser() {
+    var texts = List.of(
+        "[ +1 ]", "[ -x ]", "[ x12 ]", "[ 01 ]", "[ -01 ]", "[ 1. ]", "[ .5 ]", "[ 1.e3 ]", "[ 1e ]", "[ 1e+ ]",
+        "[ 1.5.2 ]", "[ 1-2 ]", "[ - ]", "[ 1x ]", "[ tru ]", "[ nul ]", "{\"name\": \"a\", \"age\": tru }", "[ 1 ] 2"
+    );
+    assertAll(texts.stream().flatMap(text -> Stream.of(
+        () -> assertThrows(IllegalStateException.class, () -> toyEvents(text), text),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents(text), text)
+    )));
+  }
+
+  @Test
+  public void escapesAcrossBlocks() {
+    // move the escape sequences around the 64 characters boundary of a block
+    assertAll(IntStream.range(0, 70).mapToObj(padding -> () -> {
+      var text = "[ \"" + "a".repeat(padding) + "\\\\\\\"b\\\\\", \"c\\\\\\\\\", {\"d\": 4} ]";
+      assertEquals(toyEvents(text), indexedEvents(text), text);
+    }));
+  }
+
+  @Test
+  public void longDocument() {
+    var text = IntStream.range(0, 1_000)
+        .mapToObj(i -> "{ \"id\": " + i + ", \"name\": \"item " + i + "\", \"price\": " + i + ".5 }")
+        .collect(Collectors.joining(",\n", "[\n", "\n]"));
+    assertEquals(toyEvents(text), indexedEvents(text));
+  }
+
+  @Test
+  public void invalidTexts() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("\"foo\"")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("{")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ 1, 2 }")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ 1 2 ]")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("{ \"a\" 1 }")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ tru ]")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ 1x ]")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ \"abc ]")),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[ 1 ] 2"))
+    );
+  }
+
+  @Test
+  public void invalidTextReportsLineAndColumn() {
+    var exception = assertThrows(IllegalStateException.class, () -> indexedEvents("[\n  1,\n  2 3\n]"));
+    assertTrue(exception.getMessage().contains("line 3, column 5"), exception.getMessage());
+  }
+
+  @Test
+  public void limits() {
+    var limits = new JSONLimits(2, 3, 4, 2);
+    assertAll(
+        () -> assertEquals(toyEvents("[ [ \"abc\", 1234 ] ]"), limitedEvents("[ [ \"abc\", 1234 ] ]", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> limitedEvents("[ 1, 2, 3 ]", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> limitedEvents("{ \"a\": 1, \"b\": 2, \"c\": 3 }", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> limitedEvents("[ [ [] ] ]", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> limitedEvents("{ \"abcd\": 1 }", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> limitedEvents("[ 12345 ]", limits)),
+        () -> assertThrows(IllegalStateException.class, () -> indexedEvents("[".repeat(1_000_000)))
+    );
+  }
+
+  @Test
+  public void parseRange() {
+    // the range starts and ends in the middle of a block and the text around is not valid JSON
+    var prefix = "x".repeat(70) + "\n";
+    var record = "{ \"a\": [ 1, \"b\" ], \"c\": { \"d\": null } }";
+    var input = prefix + record + " }]\"";
+    var start = prefix.length();
+    var end = start + record.length();
+    var toyEvents = new ArrayList<String>();
+    ToyJSONParser.parse(input, start, end, recorder(toyEvents), JSONLimits.DEFAULT);
+    var iterativeEvents = new ArrayList<String>();
+    ToyJSONParser.parseIterative(input, start, end, recorder(iterativeEvents), JSONLimits.DEFAULT);
+    var indexedEvents = new ArrayList<String>();
+    IndexedJSONParser.parse(input, start, end, recorder(indexedEvents), JSONLimits.DEFAULT);
+    assertAll(
+        () -> assertEquals(toyEvents(record), toyEvents),
+        () -> assertEquals(toyEvents(record), iterativeEvents),
+        () -> assertEquals(toyEvents(record), indexedEvents)
+    );
+  }
+
+  @Test
+  public void parseRangeReportsLineAndColumnOfTheInput() {
+    var input = "[ 1 ]\n[ 2 3 ]\n";
+    var toyException = assertThrows(IllegalStateException.class,
+        () -> ToyJSONParser.parse(input, 6, 13, recorder(new ArrayList<>()), JSONLimits.DEFAULT));
+    var indexedException = assertThrows(IllegalStateException.class,
+        () -> IndexedJSONParser.parse(input, 6, 13, recorder(new ArrayList<>()), JSONLimits.DEFAULT));
+    assertAll(
+        () -> assertTrue(toyException.getMessage().contains("line 2, column 5"), toyException.getMessage()),
+        () -> assertTrue(indexedException.getMessage().contains("line 2, column 5"), indexedException.getMessage())
+    );
+  }
+
+  private static List<String> limitedEvents(String text, JSONLimits limits) {
+    var events = new ArrayList<String>();
+    IndexedJSONParser.parse(text, recorder(events), limits);
+    return events;
+  }
+}
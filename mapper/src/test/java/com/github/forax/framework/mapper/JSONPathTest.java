@@ -0,0 +1,97 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JSONPathTest {
+  private static final String TEXT = """
+      {
+        "id": "order-list",
+        "orders": [
+          { "id": 1, "lines": [ { "sku": "a" } ], "total": 12.5 },
+          { "id": 2, "note": "with \\"quotes\\" and [brackets] {braces}", "total": 7 },
+          { "id": 3 }
+        ],
+        "a/b": { "m~n": true }
+      }
+      """;
+
+  private static List<String> extract(String pointer, String text) {
+    return JSONPath.compile(pointer).extract(text).stream().map(LazyJSON::toString).toList();
+  }
+
+  @Test
+  public void extract() {
+    assertAll(
+        () -> assertEquals(List.of("12.5", "7"), extract("/orders/*/total", TEXT)),
+        () -> assertEquals(List.of("\"order-list\""), extract("/id", TEXT)),
+        () -> assertEquals(List.of("2"), extract("/orders/1/id", TEXT)),
+        () -> assertEquals(List.of("{ \"sku\": \"a\" }"), extract("/orders/0/lines/0", TEXT)),
+        () -> assertEquals(List.of("1", "2", "3"), extract("/orders/*/id", TEXT)),
+        () -> assertEquals(List.of("true"), extract("/a~1b/m~0n", TEXT)),
+        () -> assertEquals(List.of(), extract("/orders/3", TEXT)),
+        () -> assertEquals(List.of(), extract("/unknown/*", TEXT)),
+        () -> assertEquals(List.of(), extract("/id/foo", TEXT))
+    );
+  }
+
+  @Test
+  public void extractWholeText() {
+    assertEquals(List.of("[ 1, 2 ]"), extract("", "[ 1, 2 ]"));
+  }
+
+  @Test
+  public void extractValues() {
+    var totals = JSONPath.compile("/orders/*/total").extract(TEXT);
+    assertAll(
+        () -> assertEquals(12.5, totals.get(0).asDouble()),
+        () -> assertEquals(7, totals.get(1).asInt()),
+        () -> assertEquals("a", JSONPath.compile("/orders/0/lines/0/sku").extract(TEXT).getFirst().asString())
+    );
+  }
+
+  @Test
+  public void extractEscapedKey() {
+    assertEquals(List.of("1"), extract("/a\"b", """
+        { "a\\"b": 1, "ab": 2 }
+        """));
+  }
+
+  @Test
+  public void extractFirstStopsScanning() {
+    var text = "{ \"key\": \"route-66\", \"payload\": [ " + IntStream.range(0, 100_000).mapToObj(i -> "{ \"i\": " + i + " }").collect(Collectors.joining(", ")) + ", oops";
+    assertAll(
+        () -> assertEquals("route-66", JSONPath.compile("/key").extractFirst(text).orElseThrow().asString()),
+        () -> assertTrue(JSONPath.compile("/unknown").extractFirst("{ \"key\": 1 }").isEmpty()),
+        () -> assertThrows(IllegalStateException.class, () -> JSONPath.compile("/key").extract(text))
+    );
+  }
+
+  @Test
+  public void invalidPointer() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONPath.compile("orders")),
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONPath.compile("/a~2")),
+        () -> assertThrows(NullPointerException.class, () -> JSONPath.compile(null))
+    );
+  }
+
+  @Test
+  public void invalidText() {
+    var path = JSONPath.compile("/a/*");
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> path.extract("{ \"a\": [ 1 2 ] }")),
+        () -> assertThrows(IllegalStateException.class, () -> path.extract("{ \"a\" [ 1 ] }")),
+        () -> assertThrows(IllegalStateException.class, () -> path.extract("{ \"a\": [ 1 ] } }")),
+        () -> assertThrows(IllegalStateException.class, () -> path.extract("{ \"a\": \"foo }"))
+    );
+  }
+}
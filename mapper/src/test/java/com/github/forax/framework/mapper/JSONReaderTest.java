@@ -4,26 +4,38 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static java.util.stream.Collectors.joining;
 
 public class JSONReaderTest {
-  /*
   @Nested
   public class Q1 {
 
@@ -138,6 +150,140 @@ public class JSONReaderTest {
       );
     }
 
+    @SuppressWarnings("unused")
+    public static class NumericBean {
+      private long longValue;
+      private short shortValue;
+      private float floatValue;
+      private double doubleValue;
+      private Long boxedValue = 42L;
+
+      public void setLongValue(long longValue) {
+        this.longValue = longValue;
+      }
+      public void setShortValue(short shortValue) {
+        this.shortValue = shortValue;
+      }
+      public void setFloatValue(float floatValue) {
+        this.floatValue = floatValue;
+      }
+      public void setDoubleValue(double doubleValue) {
+        this.doubleValue = doubleValue;
+      }
+      public void setBoxedValue(Long boxedValue) {
+        this.boxedValue = boxedValue;
+      }
+    }
+
+    @Test @Tag("Q1")
+    public void parseJSONNumericCoercion() {
+      var reader = new JSONReader();
+      var bean = reader.parseJSON("""
+        {
+          "longValue": 12,
+          "shortValue": 7,
+          "floatValue": 1.5,
+          "doubleValue": 3,
+          "boxedValue": null
+        }
+        """, NumericBean.class);
+      assertAll(
+          () -> assertEquals(12L, bean.longValue),
+          () -> assertEquals((short) 7, bean.shortValue),
+          () -> assertEquals(1.5f, bean.floatValue),
+          () -> assertEquals(3.0, bean.doubleValue),
+          () -> assertNull(bean.boxedValue)
+      );
+    }
+
+    public record NumericRecord(byte byteValue, int intValue) {}
+
+    @Test @Tag("Q1")
+    public void parseJSONNumericCoercionErrors() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> {
+            var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "shortValue": 70000 }
+              """, NumericBean.class));
+            assertTrue(exception.getMessage().contains("invalid value 70000 for key shortValue of type short"), exception.getMessage());
+          },
+          () -> {
+            var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "longValue": 1.5 }
+              """, NumericBean.class));
+            assertTrue(exception.getMessage().contains("invalid value 1.5 for key longValue of type long"), exception.getMessage());
+          },
+          () -> {
+            var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "doubleValue": "3" }
+              """, NumericBean.class));
+            assertTrue(exception.getMessage().contains("invalid value 3 for key doubleValue of type double"), exception.getMessage());
+          },
+          () -> {
+            var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "byteValue": 128, "intValue": 1 }
+              """, NumericRecord.class));
+            assertTrue(exception.getMessage().contains("key byteValue of type byte"), exception.getMessage());
+          },
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "boxedValue": "42" }
+              """, NumericBean.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              [ 1, 2.5 ]
+              """, new JSONReader.TypeReference<List<Integer>>() {})),
+          () -> assertEquals(new NumericRecord((byte) 127, 2), reader.parseJSON("""
+              { "byteValue": 127, "intValue": 2.0 }
+              """, NumericRecord.class))
+      );
+    }
+
+    @SuppressWarnings("unused")
+    public static class EventBean {
+      private long timestamp;
+      private Long expiration;
+
+      public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+      }
+      public void setExpiration(Long expiration) {
+        this.expiration = expiration;
+      }
+    }
+
+    @Test @Tag("Q1")
+    public void parseJSONEpochMillis() {
+      var text = """
+        { "timestamp": 1700000000000, "expiration": 4102444800000 }
+        """;
+      var reader = new JSONReader();
+      var bean = reader.parseJSON(text, EventBean.class);
+      var indexedReader = new JSONReader();
+      indexedReader.useIndexedParser(true);
+      var indexedBean = indexedReader.parseJSON(text, EventBean.class);
+      assertAll(
+          () -> assertEquals(1_700_000_000_000L, bean.timestamp),
+          () -> assertEquals(4_102_444_800_000L, bean.expiration),
+          () -> assertEquals(1_700_000_000_000L, indexedBean.timestamp),
+          () -> assertEquals(4_102_444_800_000L, indexedBean.expiration),
+          () -> assertEquals(List.of(3_000_000_000L, 2L), reader.parseJSON("[ 3000000000, 2 ]",
+              new JSONReader.TypeReference<List<Long>>() {})),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "shortValue": 3000000000 }
+              """, NumericBean.class))
+      );
+    }
+
+    @Test @Tag("Q1")
+    public void parseJSONNullPrimitive() {
+      var reader = new JSONReader();
+      assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+        {
+          "longValue": null
+        }
+        """, NumericBean.class));
+    }
+
     @Test @Tag("Q1")
     public void parseJSONInvalidKey() {
       var reader = new JSONReader();
@@ -210,9 +356,1135 @@ public class JSONReaderTest {
           });
     }
 
+    public record Point(int x, @JSONProperty("y-axis") long y) { }
+    public record Segment(String name, Point start, Point end) { }
+
+    @Test @Tag("Q2")
+    public void parseJSONRecord() {
+      var reader = new JSONReader();
+      var point = reader.parseJSON("""
+        {
+          "x": 1, "y-axis": 2
+        }
+        """, Point.class);
+      assertEquals(new Point(1, 2), point);
+    }
+
+    @Test @Tag("Q2")
+    public void parseJSONRecordPartial() {
+      var reader = new JSONReader();
+      var segment = reader.parseJSON("""
+        {
+          "start": { "x": 3 }
+        }
+        """, Segment.class);
+      assertEquals(new Segment(null, new Point(3, 0), null), segment);
+    }
+
+    @Test @Tag("Q2")
+    public void parseJSONRecursiveRecord() {
+      var reader = new JSONReader();
+      var segment = reader.parseJSON("""
+        {
+          "name": "diagonal",
+          "start": { "x": 0, "y-axis": 0 },
+          "end": { "x": 10, "y-axis": 10 }
+        }
+        """, Segment.class);
+      assertEquals(new Segment("diagonal", new Point(0, 0), new Point(10, 10)), segment);
+    }
+
+    @Test @Tag("Q2")
+    public void parseJSONRecordInvalidKey() {
+      var reader = new JSONReader();
+      assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+          {
+            "z": 3
+          }
+          """, Point.class));
+    }
+
   }  // end of Q2
 
 
+  @Nested
+  public class Containers {
+
+    public record Item(String name, long quantity) { }
+
+    @SuppressWarnings("unused")
+    public static class Order {
+      private List<Item> items;
+      private Map<String, Double> prices;
+      private Set<String> tags;
+      private int[] codes;
+      private Item[] extras;
+
+      public void setItems(List<Item> items) {
+        this.items = items;
+      }
+      public void setPrices(Map<String, Double> prices) {
+        this.prices = prices;
+      }
+      public void setTags(Set<String> tags) {
+        this.tags = tags;
+      }
+      public void setCodes(int[] codes) {
+        this.codes = codes;
+      }
+      public void setExtras(Item[] extras) {
+        this.extras = extras;
+      }
+    }
+
+    @Test
+    public void parseJSONBeanWithContainers() {
+      var reader = new JSONReader();
+      var order = reader.parseJSON("""
+        {
+          "items": [ { "name": "apple", "quantity": 3 }, { "name": "pear", "quantity": 1 } ],
+          "prices": { "apple": 1.5, "pear": 2 },
+          "tags": [ "fruit", "fresh", "fruit" ],
+          "codes": [ 1, 2, 3 ],
+          "extras": [ { "name": "bag", "quantity": 1 } ]
+        }
+        """, Order.class);
+      assertAll(
+          () -> assertEquals(List.of(new Item("apple", 3), new Item("pear", 1)), order.items),
+          () -> assertEquals(Map.of("apple", 1.5, "pear", 2.0), order.prices),
+          () -> assertEquals(Set.of("fruit", "fresh"), order.tags),
+          () -> assertArrayEquals(new int[] { 1, 2, 3 }, order.codes),
+          () -> assertArrayEquals(new Item[] { new Item("bag", 1) }, order.extras),
+          () -> assertThrows(UnsupportedOperationException.class, () -> order.items.add(new Item("kiwi", 2)))
+      );
+    }
+
+    @Test
+    public void parseJSONTypeReference() {
+      var reader = new JSONReader();
+      var items = reader.parseJSON("""
+        [ { "name": "apple", "quantity": 3 } ]
+        """, new JSONReader.TypeReference<List<Item>>() {});
+      assertEquals(List.of(new Item("apple", 3)), items);
+    }
+
+    @Test
+    public void parseJSONListOfLongs() {
+      var reader = new JSONReader();
+      var values = reader.parseJSON("""
+        [ 1, 2, null ]
+        """, new JSONReader.TypeReference<List<Long>>() {});
+      assertEquals(Arrays.asList(1L, 2L, null), values);
+    }
+
+    @Test
+    public void parseJSONMapOfLists() {
+      var reader = new JSONReader();
+      var map = reader.parseJSON("""
+        { "a": [ 1, 2 ], "b": [] }
+        """, new JSONReader.TypeReference<Map<String, List<Integer>>>() {});
+      assertEquals(Map.of("a", List.of(1, 2), "b", List.of()), map);
+    }
+
+    @Test
+    public void parseJSONPrimitiveArrays() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertArrayEquals(new int[] { 1, 2, 3 }, reader.parseJSON("[ 1, 2, 3 ]", int[].class)),
+          () -> assertArrayEquals(new long[] { 4, 5 }, reader.parseJSON("[ 4, 5 ]", long[].class)),
+          () -> assertArrayEquals(new double[] { 1.5, 2 }, reader.parseJSON("[ 1.5, 2 ]", double[].class)),
+          () -> assertArrayEquals(new boolean[] { true, false }, reader.parseJSON("[ true, false ]", boolean[].class)),
+          () -> assertArrayEquals(new int[0], reader.parseJSON("[]", int[].class)),
+          () -> assertArrayEquals(new int[][] { { 1 }, { 2, 3 } }, reader.parseJSON("[ [ 1 ], [ 2, 3 ] ]", int[][].class))
+      );
+    }
+
+    @Test
+    public void parseJSONInvalidPrimitiveArray() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("[ 1.5 ]", int[].class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("[ null ]", int[].class))
+      );
+    }
+
+    @Test
+    public void parseJSONObjectAsAnArray() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> {
+            var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+                { "a": 1, "b": 2 }
+                """, new JSONReader.TypeReference<List<Integer>>() {}));
+            assertTrue(exception.getMessage().startsWith("expect an array but found an object"), exception.getMessage());
+          },
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("{}", new JSONReader.TypeReference<List<Integer>>() {})),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("{ \"a\": 1 }", int[].class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("{ \"a\": \"b\" }", String[].class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "tags": { "a": "fruit" } }
+              """, Order.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "codes": { "a": 1 } }
+              """, Order.class))
+      );
+    }
+
+    @Test
+    public void parseJSONWithIndexedParser() {
+      var reader = new JSONReader();
+      reader.useIndexedParser(true);
+      var order = reader.parseJSON("""
+        {
+          "items": [ { "name": "apple", "quantity": 3 } ],
+          "prices": { "apple": 1.5 },
+          "codes": [ 1, 2, 3 ]
+        }
+        """, Order.class);
+      assertAll(
+          () -> assertEquals(List.of(new Item("apple", 3)), order.items),
+          () -> assertEquals(Map.of("apple", 1.5), order.prices),
+          () -> assertArrayEquals(new int[] { 1, 2, 3 }, order.codes)
+      );
+    }
+
+    @Test
+    public void parseJSONTypeReferencePrecondition() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(NullPointerException.class, () -> reader.parseJSON(null, new JSONReader.TypeReference<String>() {})),
+          () -> assertThrows(NullPointerException.class, () -> reader.parseJSON("", (JSONReader.TypeReference<?>) null)),
+          () -> assertThrows(NullPointerException.class, () -> reader.parseJSON("", (Type) null))
+      );
+    }
+
+  }  // end of Containers
+
+
+  @Nested
+  public class Parallel {
+
+    public record Item(String name, long quantity) { }
+
+    @Test
+    public void parseJSONLines() {
+      var reader = new JSONReader();
+      var text = IntStream.range(0, 1_000)
+          .mapToObj(i -> "{ \"name\": \"item" + i + "\", \"quantity\": " + i + " }")
+          .collect(joining("\n", "", "\n\n"));
+      var items = reader.parseJSONLines(text, Item.class);
+      assertEquals(IntStream.range(0, 1_000).mapToObj(i -> new Item("item" + i, i)).toList(), items);
+    }
+
+    @Test
+    public void streamJSONLines() {
+      var reader = new JSONReader();
+      var text = """
+        { "name": "apple", "quantity": 3 }
+        { "name": "pear", "quantity": 4 }
+        """;
+      var total = reader.streamJSONLines(text, Item.class)
+          .mapToLong(item -> ((Item) item).quantity())
+          .sum();
+      assertEquals(7, total);
+    }
+
+    @Test
+    public void parseJSONLinesReportsTheLineOfTheText() {
+      var reader = new JSONReader();
+      var text = """
+        { "name": "apple", "quantity": 3 }
+        { "name": "pear", "quantity": 4 }
+        { "name": "kiwi" "quantity": 5 }
+        """;
+      var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSONLines(text, Item.class));
+      assertTrue(exception.getMessage().contains("line 3"), exception.getMessage());
+    }
+
+    @Test
+    public void streamJSONLinesFromAReader() {
+      var reader = new JSONReader();
+      var text = """
+        { "name": "apple", "quantity": 3 }
+
+        { "name": "pear", "quantity": 4 }
+        """;
+      var items = reader.streamJSONLines(new StringReader(text), Item.class).toList();
+      assertEquals(List.of(new Item("apple", 3), new Item("pear", 4)), items);
+    }
+
+    @Test
+    public void streamJSONLinesFromAReaderByBatches() {
+      var reader = new JSONReader();
+      var text = IntStream.range(0, 1_000)
+          .mapToObj(i -> i % 10 == 0 ? "\n" : "{ \"name\": \"" + "item".repeat(i % 7) + "\", \"quantity\": " + i + " }\n")
+          .collect(joining());
+      var expected = IntStream.range(0, 1_000)
+          .filter(i -> i % 10 != 0)
+          .mapToObj(i -> new Item("item".repeat(i % 7), i))
+          .toList();
+      assertAll(IntStream.of(16, 50, 64, 1_000, JSONReader.LINES_BATCH_SIZE).mapToObj(batchSize -> () ->
+          assertEquals(expected, reader.streamJSONLines(new StringReader(text), Item.class, batchSize).toList(), "batch size " + batchSize)));
+    }
+
+    @Test
+    public void parseJSONArray() {
+      var reader = new JSONReader();
+      var text = IntStream.range(0, 1_000)
+          .mapToObj(i -> "{ \"name\": \"item, [" + i + "]\", \"quantity\": " + i + " }")
+          .collect(joining(",\n", "[\n", "\n]"));
+      var items = reader.parseJSONArray(text, Item.class);
+      assertEquals(IntStream.range(0, 1_000).mapToObj(i -> new Item("item, [" + i + "]", i)).toList(), items);
+    }
+
+    @Test
+    public void parseJSONArrayOfLists() {
+      var reader = new JSONReader();
+      var lists = reader.parseJSONArray("""
+        [ [ 1, 2 ], [], [ [ 3 ], { "four": 4 } ] ]
+        """, List.class);
+      assertEquals(List.of(List.of(1, 2), List.of(), List.of(List.of(3), Map.of("four", 4))), lists);
+    }
+
+    @Test
+    public void parseJSONArrayEmpty() {
+      var reader = new JSONReader();
+      assertEquals(List.of(), reader.parseJSONArray("[ ]", Item.class));
+    }
+
+    @Test
+    public void parseJSONArrayInvalid() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSONArray("{}", Item.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSONArray("[ {} ", Item.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSONArray("[ {} ] {}", Item.class))
+      );
+    }
+
+  }  // end of Parallel
+
+
+  @Nested
+  public class Streaming {
+
+    public record Item(String name, long quantity) { }
+
+    @Test
+    public void stream() {
+      var reader = new JSONReader();
+      var items = reader.stream(new StringReader("""
+          [
+            { "name": "apple, [red]", "quantity": 3 },
+            { "name": "pear \\"}\\"", "quantity": 4 }
+          ]
+          """), Item.class).toList();
+      assertEquals(List.of(new Item("apple, [red]", 3), new Item("pear \"}\"", 4)), items);
+    }
+
+    @Test
+    public void streamEmpty() {
+      var reader = new JSONReader();
+      assertEquals(0, reader.stream(new StringReader(" [ ] "), Item.class).count());
+    }
+
+    @Test
+    public void streamInputStream() {
+      var reader = new JSONReader();
+      var input = new ByteArrayInputStream("""
+          [ { "name": "\u00e9clair", "quantity": 1 } ]
+          """.getBytes(StandardCharsets.UTF_8));
+      assertEquals(List.of(new Item("\u00e9clair", 1)), reader.stream(input, Item.class).toList());
+    }
+
+    @Test
+    public void streamStopsReading() {
+      // an infinite JSON array
+      var infiniteReader = new Reader() {
+        private long index;
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+          var text = (index == 0 ? "[" : ",") + "{ \"name\": \"item\", \"quantity\": " + index++ + " }";
+          var count = Math.min(length, text.length());
+          text.getChars(0, count, buffer, offset);
+          if (count < text.length()) {
+            throw new AssertionError("buffer too small");
+          }
+          return count;
+        }
+
+        @Override
+        public void close() {}
+      };
+      var reader = new JSONReader();
+      var items = reader.stream(infiniteReader, Item.class).limit(3).toList();
+      assertEquals(List.of(new Item("item", 0), new Item("item", 1), new Item("item", 2)), items);
+    }
+
+    @Test
+    public void streamInvalid() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.stream(new StringReader("{}"), Item.class).toList()),
+          () -> assertThrows(IllegalStateException.class, () -> reader.stream(new StringReader("[ {} "), Item.class).toList()),
+          () -> assertThrows(IllegalStateException.class, () -> reader.stream(new StringReader("[ {}, ]"), Item.class).toList())
+      );
+    }
+
+    @Test
+    public void streamPreconditions() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(NullPointerException.class, () -> reader.stream((Reader) null, Item.class)),
+          () -> assertThrows(NullPointerException.class, () -> reader.stream(new StringReader("[]"), (Class<?>) null))
+      );
+    }
+
+  }  // end of Streaming
+
+
+  @Nested
+  public class InPlace {
+
+    @SuppressWarnings("unused")
+    public static class Level {
+      private double price;
+      private long size;
+
+      public double getPrice() {
+        return price;
+      }
+      public void setPrice(double price) {
+        this.price = price;
+      }
+      public long getSize() {
+        return size;
+      }
+      public void setSize(long size) {
+        this.size = size;
+      }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Quote {
+      private String symbol;
+      private Level last;
+      private List<Level> bids;
+      private List<Integer> flags;
+
+      public String getSymbol() {
+        return symbol;
+      }
+      public void setSymbol(String symbol) {
+        this.symbol = symbol;
+      }
+      public Level getLast() {
+        return last;
+      }
+      public void setLast(Level last) {
+        this.last = last;
+      }
+      public List<Level> getBids() {
+        return bids;
+      }
+      public void setBids(List<Level> bids) {
+        this.bids = bids;
+      }
+      public List<Integer> getFlags() {
+        return flags;
+      }
+      public void setFlags(List<Integer> flags) {
+        this.flags = flags;
+      }
+    }
+
+    @Test
+    public void parseInto() {
+      var reader = new JSONReader();
+      var quote = new Quote();
+      var result = reader.parseInto("""
+        {
+          "symbol": "ACME",
+          "last": { "price": 12.5, "size": 100 },
+          "bids": [ { "price": 12.25, "size": 10 }, { "price": 12, "size": 20 } ],
+          "flags": [ 1, 2 ]
+        }
+        """, quote);
+      assertAll(
+          () -> assertSame(quote, result),
+          () -> assertEquals("ACME", quote.symbol),
+          () -> assertEquals(12.5, quote.last.price),
+          () -> assertEquals(100, quote.last.size),
+          () -> assertEquals(2, quote.bids.size()),
+          () -> assertEquals(12.0, quote.bids.get(1).price),
+          () -> assertEquals(List.of(1, 2), quote.flags),
+          () -> assertInstanceOf(ArrayList.class, quote.bids)
+      );
+    }
+
+    @Test
+    public void parseIntoReusesNestedBeansAndLists() {
+      var reader = new JSONReader();
+      var quote = reader.parseInto("""
+        { "last": { "price": 1, "size": 1 }, "bids": [ { "price": 1, "size": 1 }, { "price": 2, "size": 2 } ] }
+        """, new Quote());
+      var last = quote.last;
+      var bids = quote.bids;
+      var firstBid = bids.get(0);
+      reader.parseInto("""
+        { "last": { "price": 3.5 }, "bids": [ { "price": 4, "size": 4 } ] }
+        """, quote);
+      assertAll(
+          () -> assertSame(last, quote.last),
+          () -> assertEquals(3.5, last.price),
+          () -> assertEquals(1, last.size),
+          () -> assertSame(bids, quote.bids),
+          () -> assertEquals(1, bids.size()),
+          () -> assertSame(firstBid, bids.get(0)),
+          () -> assertEquals(4.0, firstBid.price)
+      );
+    }
+
+    @Test
+    public void parseIntoKeepsAbsentProperties() {
+      var reader = new JSONReader();
+      var quote = new Quote();
+      quote.setSymbol("ACME");
+      reader.parseInto("""
+        { "flags": [] }
+        """, quote);
+      assertAll(
+          () -> assertEquals("ACME", quote.symbol),
+          () -> assertEquals(List.of(), quote.flags)
+      );
+    }
+
+    @Test
+    public void parseIntoReplacesUnmodifiableList() {
+      var reader = new JSONReader();
+      var quote = new Quote();
+      quote.setFlags(List.of(7));
+      reader.parseInto("""
+        { "flags": [ 1, 2 ] }
+        """, quote);
+      assertEquals(List.of(1, 2), quote.flags);
+    }
+
+    @Test
+    public void parseIntoInvalid() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseInto("[]", new Quote())),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseInto("{ \"foo\": 1 }", new Quote())),
+          () -> assertThrows(IllegalArgumentException.class, () -> reader.parseInto("{}", new Containers.Item("apple", 1))),
+          () -> assertThrows(NullPointerException.class, () -> reader.parseInto(null, new Quote())),
+          () -> assertThrows(NullPointerException.class, () -> reader.parseInto("{}", null))
+      );
+    }
+  }  // end of InPlace
+
+
+  @Nested
+  public class Validation {
+
+    @SuppressWarnings("unused")
+    public static class Account {
+      private String login;
+      private int age;
+
+      @JSONRequired @JSONMaxLength(8)
+      public void setLogin(String login) {
+        this.login = login;
+      }
+      @JSONRange(min = 0, max = 150)
+      public void setAge(int age) {
+        this.age = age;
+      }
+    }
+
+    @JSONUnknownKeys(JSONUnknownKeys.Policy.IGNORE)
+    public record Trade(@JSONRequired String symbol, @JSONRange(min = 0.01) double price, @JSONRequired long quantity) { }
+
+    @Test
+    public void validBean() {
+      var reader = new JSONReader();
+      var account = reader.parseJSON("""
+        { "login": "bob", "age": 42 }
+        """, Account.class);
+      assertAll(
+          () -> assertEquals("bob", account.login),
+          () -> assertEquals(42, account.age)
+      );
+    }
+
+    @Test
+    public void missingRequiredKey() {
+      var reader = new JSONReader();
+      var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+        { "age": 42 }
+        """, Account.class));
+      assertTrue(exception.getMessage().contains("missing required key login"), exception.getMessage());
+    }
+
+    @Test
+    public void outOfRange() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+            { "login": "bob", "age": 151 }
+            """, Account.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+            { "login": "bob", "age": 1000 }
+            """, Account.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+            { "symbol": "ACME", "price": 0.0, "quantity": 1 }
+            """, Trade.class))
+      );
+    }
+
+    @Test
+    public void tooLong() {
+      var reader = new JSONReader();
+      assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+        { "login": "123456789" }
+        """, Account.class));
+    }
+
+    @Test
+    public void validRecordIgnoringUnknownKeys() {
+      var reader = new JSONReader();
+      var trade = reader.parseJSON("""
+        { "symbol": "ACME", "venue": { "name": "X", "ids": [ 1, [ 2 ] ] }, "price": 12.5, "tags": [ "a" ], "quantity": 3, "note": null }
+        """, Trade.class);
+      assertEquals(new Trade("ACME", 12.5, 3), trade);
+    }
+
+    @Test
+    public void missingRequiredComponent() {
+      var reader = new JSONReader();
+      var exception = assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+        { "symbol": "ACME", "price": 12.5 }
+        """, Trade.class));
+      assertTrue(exception.getMessage().contains("missing required key quantity"), exception.getMessage());
+    }
+
+    @Test
+    public void unknownKeyFailsByDefault() {
+      var reader = new JSONReader();
+      assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+        { "login": "bob", "age": 42, "unknown": {} }
+        """, Account.class));
+    }
+
+    @Test
+    public void hostileTextsAreRejected() {
+      var reader = new JSONReader();
+      var deep = "[".repeat(10_000_000);
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON(deep, Object.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("[ " + "1".repeat(10_000) + " ]", Object.class))
+      );
+    }
+
+    @Test
+    public void useLimits() {
+      var reader = new JSONReader();
+      reader.useLimits(JSONLimits.DEFAULT.withMaxStringLength(5));
+      var depth = 50_000;
+      var deep = "[".repeat(depth) + "]".repeat(depth);
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+            { "login": "robert", "age": 42 }
+            """, Account.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON(deep, Object.class)),
+          () -> {
+            // a depth greater than what the recursive parser supports uses the iterative parser
+            reader.useLimits(JSONLimits.DEFAULT.withMaxDepth(depth));
+            assertTrue(reader.parseJSON(deep, Object.class) instanceof List<?>);
+          },
+          () -> assertThrows(NullPointerException.class, () -> reader.useLimits(null))
+      );
+    }
+
+    @Test
+    public void useLimitsWithCBOR() {
+      var reader = new JSONReader();
+      var writer = new CBORWriter();
+      var account = writer.toCBOR(Map.of("login", "robert", "age", 42));
+      var list = writer.toCBOR(List.of(1, 2, 3));
+      var nested = writer.toCBOR(List.of(List.of(List.of(1))));
+      assertAll(
+          () -> assertEquals(List.of(1, 2, 3), reader.parseCBOR(list, List.class)),
+          () -> {
+            reader.useLimits(JSONLimits.DEFAULT.withMaxStringLength(5));
+            assertThrows(IllegalStateException.class, () -> reader.parseCBOR(account, Account.class));
+          },
+          () -> {
+            reader.useLimits(JSONLimits.DEFAULT.withMaxContainerSize(2));
+            assertThrows(IllegalStateException.class, () -> reader.parseCBOR(list, List.class));
+          },
+          () -> {
+            reader.useLimits(JSONLimits.DEFAULT.withMaxDepth(2));
+            assertThrows(IllegalStateException.class, () -> reader.parseCBOR(nested, List.class));
+          }
+      );
+    }
+  }  // end of Validation
+
+
+  @Nested
+  public class Polymorphism {
+    public sealed interface Shape permits Circle, Square, Group { }
+
+    @JSONTypeName("circle")
+    public record Circle(Point center, double radius) implements Shape { }
+
+    @JSONTypeName("square")
+    public record Square(Point corner, double side) implements Shape { }
+
+    public record Group(List<Shape> shapes) implements Shape { }
+
+    public record Point(int x, int y) { }
+
+    @JSONDiscriminator("kind")
+    public sealed interface Animal permits Dog, Cat { }
+
+    @SuppressWarnings("unused")
+    public static final class Dog implements Animal {
+      private String name;
+
+      public void setName(String name) {
+        this.name = name;
+      }
+    }
+
+    public record Cat(String name, int lives) implements Animal { }
+
+    @Test
+    public void discriminatorFirst() {
+      var reader = new JSONReader();
+      var text = """
+          [ { "type": "circle", "center": { "x": 1, "y": 2 }, "radius": 3.5 },
+            { "type": "square", "corner": { "x": 0, "y": 0 }, "side": 2 } ]
+          """;
+      assertEquals(
+          List.of(new Circle(new Point(1, 2), 3.5), new Square(new Point(0, 0), 2)),
+          reader.parseJSON(text, new JSONReader.TypeReference<List<Shape>>() {}));
+    }
+
+    @Test
+    public void discriminatorAfterOtherKeys() {
+      var reader = new JSONReader();
+      var text = """
+          { "center": { "x": 1, "y": 2 }, "radius": 3.5, "type": "circle" }
+          """;
+      assertEquals(new Circle(new Point(1, 2), 3.5), reader.parseJSON(text, Shape.class));
+    }
+
+    @Test
+    public void nestedPolymorphicObjects() {
+      var reader = new JSONReader();
+      var text = """
+          { "shapes": [
+              { "side": 1, "corner": { "x": 1, "y": 1 }, "type": "square" },
+              { "shapes": [ { "radius": 1, "type": "circle", "center": { "x": 0, "y": 0 } } ], "type": "Group" }
+            ],
+            "type": "Group" }
+          """;
+      assertEquals(
+          new Group(List.of(new Square(new Point(1, 1), 1), new Group(List.of(new Circle(new Point(0, 0), 1))))),
+          reader.parseJSON(text, Shape.class));
+    }
+
+    @Test
+    public void customDiscriminatorAndBeanSubtype() {
+      var reader = new JSONReader();
+      var animals = reader.parseJSON("""
+          [ { "name": "rex", "kind": "Dog" }, { "kind": "Cat", "name": "tom", "lives": 9 } ]
+          """, new JSONReader.TypeReference<List<Animal>>() {});
+      assertAll(
+          () -> assertEquals("rex", assertInstanceOf(Dog.class, animals.get(0)).name),
+          () -> assertEquals(new Cat("tom", 9), animals.get(1))
+      );
+    }
+
+    @Test
+    public void withTheIndexedParser() {
+      var reader = new JSONReader();
+      reader.useIndexedParser(true);
+      assertEquals(new Square(new Point(3, 4), 5),
+          reader.parseJSON("""
+              { "side": 5, "corner": { "x": 3, "y": 4 }, "type": "square" }
+              """, Shape.class));
+    }
+
+    @Test
+    public void withCBOR() {
+      var reader = new JSONReader();
+      var map = new LinkedHashMap<String, Object>();
+      map.put("radius", 2.0);
+      map.put("center", Map.of("x", 1, "y", 1));
+      map.put("type", "circle");
+      assertEquals(new Circle(new Point(1, 1), 2), reader.parseCBOR(new CBORWriter().toCBOR(map), Shape.class));
+    }
+
+    @Test
+    public void missingOrUnknownDiscriminator() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "radius": 1 }
+              """, Shape.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "type": "triangle" }
+              """, Shape.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "type": 3 }
+              """, Shape.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              [ "circle" ]
+              """, Shape.class))
+      );
+    }
+  }  // end of Polymorphism
+
+
+  @Nested
+  public class Strings {
+    public enum Status { ACTIVE, SUSPENDED, CLOSED }
+
+    public record Account(String country, Status status) { }
+
+    @SuppressWarnings("unused")
+    public static class Customer {
+      private Status status;
+      private List<Status> history;
+
+      public void setStatus(Status status) {
+        this.status = status;
+      }
+      public void setHistory(List<Status> history) {
+        this.history = history;
+      }
+    }
+
+    @Test
+    public void enumBinding() {
+      var reader = new JSONReader();
+      var customer = reader.parseJSON("""
+          { "status": "SUSPENDED", "history": [ "ACTIVE", "SUSPENDED" ] }
+          """, Customer.class);
+      assertAll(
+          () -> assertEquals(Status.SUSPENDED, customer.status),
+          () -> assertEquals(List.of(Status.ACTIVE, Status.SUSPENDED), customer.history),
+          () -> assertEquals(new Account("FR", Status.CLOSED), reader.parseJSON("""
+              { "country": "FR", "status": "CLOSED" }
+              """, Account.class)),
+          () -> assertEquals(new Account("FR", null), reader.parseJSON("""
+              { "country": "FR", "status": null }
+              """, Account.class))
+      );
+    }
+
+    @Test
+    public void invalidEnumName() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "status": "active" }
+              """, Customer.class)),
+          () -> assertThrows(IllegalStateException.class, () -> reader.parseJSON("""
+              { "country": "FR", "status": 1 }
+              """, Account.class))
+      );
+    }
+
+    private static void assertCanonicalStrings(JSONReader reader) {
+      var text = IntStream.range(0, 100)
+          .mapToObj(i -> "{ \"country\": \"" + (i % 2 == 0 ? "FR" : "US") + "\", \"status\": \"ACTIVE\" }")
+          .collect(joining(", ", "[ ", " ]"));
+      var accounts = reader.parseJSON(text, new JSONReader.TypeReference<List<Account>>() {});
+      assertAll(IntStream.range(0, 100).mapToObj(i -> () -> {
+        var account = accounts.get(i);
+        assertAll(
+            () -> assertEquals(i % 2 == 0 ? "FR" : "US", account.country),
+            () -> assertSame(accounts.get(i % 2).country, account.country),
+            () -> assertEquals(Status.ACTIVE, account.status)
+        );
+      }));
+    }
+
+    @Test
+    public void stringCache() {
+      var reader = new JSONReader();
+      reader.useStringCache(64);
+      assertCanonicalStrings(reader);
+    }
+
+    @Test
+    public void stringCacheWithTheIndexedParser() {
+      var reader = new JSONReader();
+      reader.useStringCache(64);
+      reader.useIndexedParser(true);
+      assertCanonicalStrings(reader);
+    }
+
+    @Test
+    public void noStringCacheByDefault() {
+      var reader = new JSONReader();
+      var accounts = reader.parseJSON("""
+          [ { "country": "FR", "status": "ACTIVE" }, { "country": "FR", "status": "ACTIVE" } ]
+          """, new JSONReader.TypeReference<List<Account>>() {});
+      assertNotSame(accounts.get(0).country, accounts.get(1).country);
+    }
+
+    @Test
+    public void stringWithEscapeSequence() {
+      var reader = new JSONReader();
+      reader.useStringCache(64);
+      assertEquals(new Account("F\"R", Status.ACTIVE), reader.parseJSON("""
+          { "country": "F\\"R", "status": "ACTIVE" }
+          """, Account.class));
+    }
+
+    @Test
+    public void invalidCapacity() {
+      assertThrows(IllegalArgumentException.class, () -> new JSONReader().useStringCache(-1));
+    }
+  }  // end of Strings
+
+
+  @Nested
+  public class Merge {
+    @SuppressWarnings("unused")
+    public static class Address {
+      private String street;
+      private String city;
+
+      public String getStreet() {
+        return street;
+      }
+      public void setStreet(String street) {
+        this.street = street;
+      }
+      public String getCity() {
+        return city;
+      }
+      public void setCity(String city) {
+        this.city = city;
+      }
+    }
+
+    public record Point(int x, int y) { }
+
+    @SuppressWarnings("unused")
+    public static class User {
+      private String name;
+      private int age;
+      private Address address;
+      private Point location;
+      private List<String> tags;
+      private Map<String, Integer> scores;
+      private final ArrayList<String> calls = new ArrayList<>();
+
+      public String getName() {
+        return name;
+      }
+      public void setName(String name) {
+        calls.add("name");
+        this.name = name;
+      }
+      public int getAge() {
+        return age;
+      }
+      public void setAge(int age) {
+        calls.add("age");
+        this.age = age;
+      }
+      public Address getAddress() {
+        return address;
+      }
+      public void setAddress(Address address) {
+        calls.add("address");
+        this.address = address;
+      }
+      public Point getLocation() {
+        return location;
+      }
+      public void setLocation(Point location) {
+        calls.add("location");
+        this.location = location;
+      }
+      public List<String> getTags() {
+        return tags;
+      }
+      public void setTags(List<String> tags) {
+        calls.add("tags");
+        this.tags = tags;
+      }
+      public Map<String, Integer> getScores() {
+        return scores;
+      }
+      public void setScores(Map<String, Integer> scores) {
+        calls.add("scores");
+        this.scores = scores;
+      }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Account {
+      private String id;
+
+      @JSONRequired
+      public void setId(String id) {
+        this.id = id;
+      }
+    }
+
+    public record Settings(String theme, int fontSize, Point origin, Map<String, String> extras) { }
+
+    private static User user() {
+      var address = new Address();
+      address.setStreet("21 Jump Street");
+      address.setCity("Los Angeles");
+      var user = new User();
+      user.setName("Ana");
+      user.setAge(37);
+      user.setAddress(address);
+      user.setLocation(new Point(1, 2));
+      user.setTags(List.of("a", "b", "c"));
+      user.setScores(Map.of("math", 12, "art", 15));
+      user.calls.clear();
+      return user;
+    }
+
+    @Test
+    public void onlyTheKeysOfThePatchAreSet() {
+      var reader = new JSONReader();
+      var user = user();
+      var result = reader.merge("""
+          { "age": 38 }
+          """, user);
+      assertAll(
+          () -> assertSame(user, result),
+          () -> assertEquals(List.of("age"), user.calls),
+          () -> assertEquals(38, user.age),
+          () -> assertEquals("Ana", user.name),
+          () -> assertEquals("Los Angeles", user.address.city)
+      );
+    }
+
+    @Test
+    public void nullClearsAProperty() {
+      var reader = new JSONReader();
+      var user = reader.merge("""
+          { "name": null, "age": null, "address": null }
+          """, user());
+      assertAll(
+          () -> assertNull(user.name),
+          () -> assertEquals(0, user.age),
+          () -> assertNull(user.address),
+          () -> assertEquals(List.of("a", "b", "c"), user.tags)
+      );
+    }
+
+    @Test
+    public void nestedObjectsAreMerged() {
+      var reader = new JSONReader();
+      var user = user();
+      var address = user.address;
+      reader.merge("""
+          { "address": { "city": "Paris" }, "location": { "y": 5 }, "scores": { "art": null, "music": 18 } }
+          """, user);
+      assertAll(
+          () -> assertSame(address, user.address),
+          () -> assertEquals("Paris", address.city),
+          () -> assertEquals("21 Jump Street", address.street),
+          () -> assertEquals(new Point(1, 5), user.location),
+          () -> assertEquals(Map.of("math", 12, "music", 18), user.scores)
+      );
+    }
+
+    @Test
+    public void arraysAreReplaced() {
+      var reader = new JSONReader();
+      var user = reader.merge("""
+          { "tags": [ "d" ] }
+          """, user());
+      assertEquals(List.of("d"), user.tags);
+    }
+
+    @Test
+    public void missingNestedObjectIsCreated() {
+      var reader = new JSONReader();
+      var user = new User();
+      reader.merge("""
+          { "address": { "city": "Paris" }, "location": { "x": 3 } }
+          """, user);
+      assertAll(
+          () -> assertEquals("Paris", user.address.city),
+          () -> assertNull(user.address.street),
+          () -> assertEquals(new Point(3, 0), user.location)
+      );
+    }
+
+    @Test
+    public void mergeARecord() {
+      var reader = new JSONReader();
+      var settings = new Settings("dark", 12, new Point(0, 0), Map.of("lang", "fr"));
+      assertEquals(
+          new Settings("dark", 0, new Point(0, 7), Map.of("lang", "en")),
+          reader.merge("""
+              { "fontSize": null, "origin": { "y": 7 }, "extras": { "lang": "en" } }
+              """, settings));
+    }
+
+    @Test
+    public void mergeWithTheIndexedParser() {
+      var reader = new JSONReader();
+      reader.useIndexedParser(true);
+      var user = reader.merge("""
+          { "name": "Bob", "address": { "street": null } }
+          """, user());
+      assertAll(
+          () -> assertEquals("Bob", user.name),
+          () -> assertNull(user.address.street),
+          () -> assertEquals("Los Angeles", user.address.city)
+      );
+    }
+
+    @Test
+    public void requiredKeyCanNotBeCleared() {
+      var reader = new JSONReader();
+      var account = new Account();
+      account.setId("42");
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.merge("""
+              { "id": null }
+              """, account)),
+          () -> assertSame(account, reader.merge("{}", account))
+      );
+    }
+
+    @Test
+    public void invalidPatch() {
+      var reader = new JSONReader();
+      assertAll(
+          () -> assertThrows(IllegalStateException.class, () -> reader.merge("""
+              [ "name" ]
+              """, user())),
+          () -> assertThrows(IllegalStateException.class, () -> reader.merge("""
+              { "foo": 3 }
+              """, user())),
+          () -> assertThrows(IllegalArgumentException.class, () -> reader.merge("{}", new String[0])),
+          () -> assertThrows(NullPointerException.class, () -> reader.merge(null, user())),
+          () -> assertThrows(NullPointerException.class, () -> reader.merge("{}", null))
+      );
+    }
+  }  // end of Merge
+
+
   @Nested
   public class Q3 {
 
@@ -442,6 +1714,30 @@ public class JSONReaderTest {
       assertEquals(List.of(new Car("Bob", "red"), new Car("Ana", "black")), string);
     }
 
+    @Test @Tag("Q5")
+    public void typeMatcherCalledOncePerType() throws NoSuchFieldException {
+      var listOfCar = new Object() {
+        List<Car> exemplar;
+      }.getClass().getDeclaredField("exemplar").getGenericType();
+
+      var types = new ArrayList<Type>();
+      var reader = new JSONReader();
+      reader.addTypeMatcher(type -> {
+        types.add(type);
+        return Optional.empty();
+      });
+      reader.addTypeMatcher(listTypeMatcher());
+      for(var i = 0; i < 3; i++) {
+        reader.parseJSON("""
+          [
+            { "owner": "Bob", "color": "red" },
+            { "owner": "Ana", "color": "black" }
+          ]
+          """, listOfCar);
+      }
+      assertEquals(List.of(Car.class), types);
+    }
+
     @Test @Tag("Q5")
     public void addTypeMatcherPreconditions() {
       var reader = new JSONReader();
@@ -558,5 +1854,4 @@ public class JSONReaderTest {
     }
 
   }  // end of Q7
-  */
 }
\ No newline at end of file
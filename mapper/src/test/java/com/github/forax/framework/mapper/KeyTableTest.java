@@ -0,0 +1,61 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class KeyTableTest {
+  @Test
+  public void get() {
+    var table = KeyTable.of(Map.of("name", 1, "age", 2));
+    assertAll(
+        () -> assertEquals(1, table.get("name")),
+        () -> assertEquals(2, table.get("age")),
+        () -> assertEquals(1, table.get(new String("name"))),
+        () -> assertNull(table.get("foo"))
+    );
+  }
+
+  @Test
+  public void getEmpty() {
+    var table = KeyTable.of(Map.of());
+    assertNull(table.get("foo"));
+  }
+
+  @Test
+  public void getManyKeys() {
+    var map = IntStream.range(0, 100).boxed().collect(Collectors.toMap(i -> "key" + i, i -> i));
+    var table = KeyTable.of(map);
+    assertAll(IntStream.range(0, 100).mapToObj(i -> () -> assertEquals(i, table.get("key" + i))));
+  }
+
+  @Test
+  public void getSameHashCode() {
+    // "Aa" and "BB" have the same hashCode
+    var table = KeyTable.of(Map.of("Aa", 1, "BB", 2));
+    assertAll(
+        () -> assertEquals(1, table.get("Aa")),
+        () -> assertEquals(2, table.get("BB")),
+        () -> assertNull(table.get("C#"))
+    );
+  }
+
+  @Test
+  public void key() {
+    var table = KeyTable.of(Map.of("name", 1, "age", 2));
+    var text = "{ \"name\": 3, \"age\": 4, \"foo\": 5 }";
+    assertAll(
+        () -> assertSame(table.key(text, 3, 7), table.key(text, 3, 7)),
+        () -> assertEquals("name", table.key(text, 3, 7)),
+        () -> assertEquals("age", table.key(text, 14, 17)),
+        () -> assertNull(table.key(text, 24, 27))
+    );
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyJSONTest {
+  private static final String TEXT = """
+      {
+        "name": "Bob",
+        "age": 23,
+        "scores": [ 12, -4, 1.5e2, { "nested": [ true, false, null ] } ],
+        "escaped \\"key\\"": "line\\nbreak",
+        "empty": {},
+        "none": []
+      }
+      """;
+
+  @Test
+  public void navigate() {
+    var root = LazyJSON.parse(TEXT);
+    assertAll(
+        () -> assertEquals(LazyJSON.Kind.OBJECT, root.kind()),
+        () -> assertEquals("Bob", root.get("name").asString()),
+        () -> assertEquals(23, root.get("age").asInt()),
+        () -> assertEquals(23L, root.get("age").asLong()),
+        () -> assertEquals(-4L, root.get("scores").get(1).asLong()),
+        () -> assertEquals(150.0, root.get("scores").get(2).asDouble()),
+        () -> assertTrue(root.get("scores").get(3).get("nested").get(0).asBoolean()),
+        () -> assertFalse(root.get("scores").get(3).get("nested").get(1).asBoolean()),
+        () -> assertTrue(root.get("scores").get(3).get("nested").get(2).isNull()),
+        () -> assertEquals("line\nbreak", root.get("escaped \"key\"").asString())
+    );
+  }
+
+  @Test
+  public void size() {
+    var root = LazyJSON.parse(TEXT);
+    assertAll(
+        () -> assertEquals(6, root.size()),
+        () -> assertEquals(4, root.get("scores").size()),
+        () -> assertEquals(0, root.get("empty").size()),
+        () -> assertEquals(0, root.get("none").size())
+    );
+  }
+
+  @Test
+  public void hasAndMissing() {
+    var root = LazyJSON.parse(TEXT);
+    assertAll(
+        () -> assertTrue(root.has("age")),
+        () -> assertFalse(root.has("nested")),
+        () -> assertThrows(NoSuchElementException.class, () -> root.get("nested")),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> root.get("scores").get(4)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> root.get("none").get(0))
+    );
+  }
+
+  @Test
+  public void wrongKind() {
+    var root = LazyJSON.parse(TEXT);
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> root.get(0)),
+        () -> assertThrows(IllegalStateException.class, () -> root.get("name").asLong()),
+        () -> assertThrows(IllegalStateException.class, () -> root.get("scores").get(2).asLong()),
+        () -> assertThrows(IllegalStateException.class, () -> root.get("age").get("foo"))
+    );
+  }
+
+  @Test
+  public void rawText() {
+    var root = LazyJSON.parse(TEXT);
+    assertAll(
+        () -> assertEquals("\"Bob\"", root.get("name").toString()),
+        () -> assertEquals("{ \"nested\": [ true, false, null ] }", root.get("scores").get(3).toString())
+    );
+  }
+
+  @Test
+  public void invalidText() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("{")),
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("[ 1, 2 }")),
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("{ \"a\" 1 }")),
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("[ 1 ] 2")),
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("[ tru ]")),
+        () -> assertThrows(IllegalStateException.class, () -> LazyJSON.parse("[ \"abc ]"))
+    );
+  }
+
+  @Test
+  public void parsePrecondition() {
+    assertThrows(NullPointerException.class, () -> LazyJSON.parse(null));
+  }
+}
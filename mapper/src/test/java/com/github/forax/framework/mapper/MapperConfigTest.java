@@ -0,0 +1,150 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapperConfigTest {
+  public record Point(int x, int y) {}
+
+  public record Label(String text) {}
+
+  // decodes a Label from an array of strings
+  @SuppressWarnings("unchecked")
+  private static final JSONReader.TypeMatcher LABEL_MATCHER = type -> Optional.of(type)
+      .filter(Label.class::equals)
+      .map(__ -> new JSONReader.ObjectBuilder<>(key -> String.class, ArrayList<Object>::new,
+          (list, key, value) -> list.add(value), list -> new Label(String.join(" ", (List<String>) (List<?>) list))));
+
+  @Test
+  public void defaultConfig() {
+    var config = MapperConfig.DEFAULT;
+    assertAll(
+        () -> assertEquals(List.of(), config.typeMatchers()),
+        () -> assertFalse(config.indexedParser()),
+        () -> assertEquals(0, config.stringCacheCapacity()),
+        () -> assertSame(JSONLimits.DEFAULT, config.limits()),
+        () -> assertNull(config.metrics()),
+        () -> assertSame(MapperConfig.DEFAULT, new JSONReader().config()),
+        () -> assertSame(MapperConfig.DEFAULT, new JSONWriter().config())
+    );
+  }
+
+  @Test
+  public void builder() {
+    var metrics = new MapperMetrics();
+    var limits = JSONLimits.DEFAULT.withMaxDepth(10);
+    var config = MapperConfig.builder()
+        .addTypeMatcher(LABEL_MATCHER)
+        .useIndexedParser(true)
+        .useStringCache(100)
+        .useLimits(limits)
+        .useMetrics(metrics)
+        .build();
+    assertAll(
+        () -> assertEquals(List.of(LABEL_MATCHER), config.typeMatchers()),
+        () -> assertTrue(config.indexedParser()),
+        () -> assertEquals(100, config.stringCacheCapacity()),
+        () -> assertEquals(128, config.stringCache().capacity()),
+        () -> assertSame(limits, config.limits()),
+        () -> assertSame(metrics, config.metrics())
+    );
+  }
+
+  @Test
+  public void toBuilderDoesNotChangeTheConfig() {
+    var config = MapperConfig.builder().addTypeMatcher(LABEL_MATCHER).build();
+    var config2 = config.toBuilder().useIndexedParser(true).addTypeMatcher(LABEL_MATCHER).build();
+    assertAll(
+        () -> assertEquals(1, config.typeMatchers().size()),
+        () -> assertFalse(config.indexedParser()),
+        () -> assertEquals(2, config2.typeMatchers().size()),
+        () -> assertTrue(config2.indexedParser()),
+        () -> assertThrows(UnsupportedOperationException.class, () -> config.typeMatchers().add(LABEL_MATCHER))
+    );
+  }
+
+  @Test
+  public void invalidBuilderValues() {
+    var builder = MapperConfig.builder();
+    assertAll(
+        () -> assertThrows(NullPointerException.class, () -> builder.addTypeMatcher(null)),
+        () -> assertThrows(NullPointerException.class, () -> builder.useLimits(null)),
+        () -> assertThrows(IllegalArgumentException.class, () -> builder.useStringCache(-1)),
+        () -> assertThrows(NullPointerException.class, () -> new JSONReader(null)),
+        () -> assertThrows(NullPointerException.class, () -> new JSONWriter(null))
+    );
+  }
+
+  @Test
+  public void readerWithConfig() {
+    var config = MapperConfig.builder().addTypeMatcher(LABEL_MATCHER).useIndexedParser(true).build();
+    var reader = new JSONReader(config);
+    assertAll(
+        () -> assertSame(config, reader.config()),
+        () -> assertEquals(new Label("hello world"), reader.parseJSON("""
+            [ "hello", "world" ]
+            """, Label.class))
+    );
+  }
+
+  @Test
+  public void reconfigureReplacesTheConfig() {
+    var reader = new JSONReader();
+    var config = reader.config();
+    reader.addTypeMatcher(LABEL_MATCHER);
+    assertAll(
+        () -> assertNotSame(config, reader.config()),
+        () -> assertEquals(List.of(), config.typeMatchers()),
+        () -> assertEquals(List.of(LABEL_MATCHER), reader.config().typeMatchers())
+    );
+  }
+
+  @Test
+  public void writerWithConfig() {
+    var metrics = new MapperMetrics();
+    var writer = new JSONWriter(MapperConfig.builder().useMetrics(metrics).build());
+    writer.toJSON(new Point(1, 2));
+    assertEquals(1, metrics.writes().get(Point.class).count());
+  }
+
+  @Test
+  public void readWhileReconfiguring() throws Exception {
+    var reader = new JSONReader();
+    var text = """
+        { "x": 1, "y": 2 }
+        """;
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var futures = new ArrayList<Future<?>>();
+      for(var i = 0; i < 100; i++) {
+        futures.add(executor.submit(() -> {
+          for(var j = 0; j < 1_000; j++) {
+            assertEquals(new Point(1, 2), reader.parseJSON(text, Point.class));
+          }
+          return null;
+        }));
+      }
+      for(var i = 0; i < 100; i++) {
+        reader.useIndexedParser(i % 2 == 0);
+        reader.useStringCache(i % 3 * 16);
+        Thread.yield();
+      }
+      for(var future : futures) {
+        future.get();
+      }
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.forax.framework.mapper;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapperMetricsTest {
+  public record Point(int x, int y) {}
+
+  @Test
+  public void readMetrics() {
+    var metrics = new MapperMetrics();
+    var reader = new JSONReader();
+    reader.useMetrics(metrics);
+    reader.parseJSON("""
+        { "x": 1, "y": 2 }
+        """, Point.class);
+    reader.parseJSON("""
+        {"x":3,"y":4}""", Point.class);
+    var pointMetrics = metrics.reads().get(Point.class);
+    assertAll(
+        () -> assertEquals(Map.of(Point.class, pointMetrics), metrics.reads()),
+        () -> assertEquals(2, pointMetrics.count()),
+        () -> assertEquals(19 + 13, pointMetrics.length()),
+        () -> assertEquals(2, pointMetrics.latencies().count()),
+        () -> assertTrue(metrics.writes().isEmpty())
+    );
+  }
+
+  @Test
+  public void readMetricsCBOR() {
+    var metrics = new MapperMetrics();
+    var reader = new JSONReader();
+    reader.useMetrics(metrics);
+    var data = new CBORWriter().toCBOR(List.of(1, 2, 3));
+    reader.parseCBOR(data, Object.class);
+    var objectMetrics = metrics.reads().get(Object.class);
+    assertAll(
+        () -> assertEquals(1, objectMetrics.count()),
+        () -> assertEquals(data.length, objectMetrics.length())
+    );
+  }
+
+  @Test
+  public void writeMetrics() {
+    var metrics = new MapperMetrics();
+    var writer = new JSONWriter();
+    writer.useMetrics(metrics);
+    var json = writer.toJSON(new Point(1, 2));
+    var pointMetrics = metrics.writes().get(Point.class);
+    assertAll(
+        () -> assertEquals(1, metrics.writes().size()),
+        () -> assertEquals(1, pointMetrics.count()),
+        () -> assertEquals(json.length(), pointMetrics.length()),
+        () -> assertTrue(metrics.reads().isEmpty())
+    );
+  }
+
+  @Test
+  public void noMetrics() {
+    var metrics = new MapperMetrics();
+    var reader = new JSONReader();
+    reader.useMetrics(metrics);
+    reader.useMetrics(null);
+    reader.parseJSON("{}", Object.class);
+    assertTrue(metrics.reads().isEmpty());
+  }
+
+  @Test
+  public void slowDocumentEvent() throws Exception {
+    var metrics = new MapperMetrics(Duration.ZERO);
+    var writer = new JSONWriter();
+    writer.useMetrics(metrics);
+    var path = Files.createTempFile("mapper", ".jfr");
+    String json;
+    try {
+      try (var recording = new Recording()) {
+        recording.enable("com.github.forax.framework.mapper.SlowDocument");
+        recording.start();
+        json = writer.toJSON(new Point(1, 2));
+        recording.stop();
+        recording.dump(path);
+      }
+      var events = RecordingFile.readAllEvents(path);
+      assertFalse(events.isEmpty());
+      var event = events.getFirst();
+      var length = json.length();
+      assertAll(
+          () -> assertEquals("write", event.getString("operation")),
+          () -> assertEquals(Point.class.getTypeName(), event.getString("rootType")),
+          () -> assertEquals(length, event.getLong("length"))
+      );
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void negativeThreshold() {
+    assertThrows(IllegalArgumentException.class, () -> new MapperMetrics(Duration.ofMillis(-1)));
+  }
+}
@@ -0,0 +1,130 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetadataSnapshotTest {
+  @SuppressWarnings("unused")
+  public static class Item {
+    private String label;
+    private int quantity;
+
+    @JSONProperty("the\tlabel")
+    public String getLabel() {
+      return label;
+    }
+    public void setLabel(String label) {
+      this.label = label;
+    }
+    public void setQuantity(int quantity) {
+      this.quantity = quantity;
+    }
+  }
+
+  private static Map<String, List<String>> snapshot(List<Class<?>> classes) throws IOException {
+    var writer = new StringWriter();
+    MetadataSnapshot.write(writer, classes);
+    var entries = new HashMap<String, List<String>>();
+    MetadataSnapshot.read(new BufferedReader(new StringReader(writer.toString())), entries);
+    return entries;
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    var entries = snapshot(List.of(Item.class, BeanPropertyTest.Bean.class, BeanPropertyTest.Point.class));
+    assertAll(
+        () -> assertEquals(BeanProperty.scan(Item.class), MetadataSnapshot.resolve(Item.class, entries.get(Item.class.getName()))),
+        () -> assertEquals(BeanProperty.scan(BeanPropertyTest.Bean.class),
+            MetadataSnapshot.resolve(BeanPropertyTest.Bean.class, entries.get(BeanPropertyTest.Bean.class.getName()))),
+        () -> assertEquals(BeanProperty.scan(BeanPropertyTest.Point.class),
+            MetadataSnapshot.resolve(BeanPropertyTest.Point.class, entries.get(BeanPropertyTest.Point.class.getName())))
+    );
+  }
+
+  @Test
+  public void snapshotNotInSync() throws IOException {
+    var entries = snapshot(List.of(Item.class));
+    // the snapshot of Item is used for another class
+    assertNull(MetadataSnapshot.resolve(BeanPropertyTest.Point.class, entries.get(Item.class.getName())));
+  }
+
+  @Test
+  public void invalidSnapshot() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class,
+            () -> MetadataSnapshot.read(new BufferedReader(new StringReader("foo\n")), new HashMap<>())),
+        () -> assertThrows(IllegalStateException.class,
+            () -> MetadataSnapshot.read(new BufferedReader(new StringReader("# mapper metadata v1\n\tname\n")), new HashMap<>()))
+    );
+  }
+
+  @Test
+  public void generate() throws IOException {
+    var directory = Files.createTempDirectory("mapper-metadata");
+    var path = directory.resolve("META-INF").resolve("mapper-metadata.txt");
+    try {
+      MetadataSnapshotGenerator.main(new String[] { path.toString(), Item.class.getName() });
+      var entries = new HashMap<String, List<String>>();
+      try(var reader = Files.newBufferedReader(path)) {
+        MetadataSnapshot.read(reader, entries);
+      }
+      assertEquals(BeanProperty.scan(Item.class), MetadataSnapshot.resolve(Item.class, entries.get(Item.class.getName())));
+    } finally {
+      Files.deleteIfExists(path);
+      Files.deleteIfExists(path.getParent());
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  @Test
+  public void readAllSkipsAnInvalidSnapshot() throws IOException {
+    var valid = Files.createTempDirectory("mapper-metadata");
+    var invalid = Files.createTempDirectory("mapper-metadata");
+    var validPath = valid.resolve(MetadataSnapshot.RESOURCE);
+    var invalidPath = invalid.resolve(MetadataSnapshot.RESOURCE);
+    try {
+      MetadataSnapshotGenerator.generate(validPath, Item.class.getName());
+      Files.createDirectories(invalidPath.getParent());
+      Files.writeString(invalidPath, "# mapper metadata v1\nclass\t" + BeanPropertyTest.Point.class.getName() + "\noops\n");
+      try(var loader = new URLClassLoader(new URL[] { invalid.toUri().toURL(), valid.toUri().toURL() }, null)) {
+        var entries = MetadataSnapshot.readAll(loader);
+        assertEquals(Set.of(Item.class.getName()), entries.keySet());
+      }
+    } finally {
+      for(var path : List.of(validPath, validPath.getParent(), valid, invalidPath, invalidPath.getParent(), invalid)) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  @Test
+  public void generateInvalidArguments() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> MetadataSnapshotGenerator.main(new String[0])),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> MetadataSnapshotGenerator.generate(Path.of("mapper-metadata.txt"), "com.acme.DoesNotExist"))
+    );
+  }
+
+  @Test
+  public void classNotInASnapshot() {
+    assertNull(MetadataSnapshot.properties(Item.class));
+  }
+}
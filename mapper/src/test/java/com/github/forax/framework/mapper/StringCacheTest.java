@@ -0,0 +1,58 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringCacheTest {
+  @Test
+  public void sameRangeSameString() {
+    var cache = new StringCache(16);
+    var text = "FR,US,FR,DE,US";
+    var fr = cache.get(text, 0, 2);
+    assertAll(
+        () -> assertEquals("FR", fr),
+        () -> assertSame(fr, cache.get(text, 6, 8)),
+        () -> assertSame(cache.get(text, 3, 5), cache.get(text, 12, 14)),
+        () -> assertEquals("DE", cache.get(text, 9, 11))
+    );
+  }
+
+  @Test
+  public void collisionReplacesTheString() {
+    var cache = new StringCache(1);
+    var text = "ab";
+    var a = cache.get(text, 0, 1);
+    var b = cache.get(text, 1, 2);
+    assertAll(
+        () -> assertEquals("a", a),
+        () -> assertEquals("b", b),
+        () -> assertEquals("a", cache.get(text, 0, 1))
+    );
+  }
+
+  @Test
+  public void longStringsAreNotCached() {
+    var cache = new StringCache(16);
+    var text = "x".repeat(StringCache.MAX_LENGTH + 1);
+    assertAll(
+        () -> assertNull(cache.get(text, 0, text.length())),
+        () -> assertEquals(text.substring(1), cache.get(text, 1, text.length()))
+    );
+  }
+
+  @Test
+  public void capacity() {
+    assertAll(
+        () -> assertEquals(1, new StringCache(1).capacity()),
+        () -> assertEquals(4, new StringCache(3).capacity()),
+        () -> assertEquals(1024, new StringCache(1024).capacity()),
+        () -> assertThrows(IllegalArgumentException.class, () -> new StringCache(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> new StringCache(-1))
+    );
+  }
+}
@@ -0,0 +1,43 @@
+package com.github.forax.framework.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextLocationTest {
+  @Test
+  public void of() {
+    var text = "{\n  \"a\": 1,\n  \"b\": 2\n}";
+    assertAll(
+        () -> assertEquals(new TextLocation(1, 1), TextLocation.of(text, 0)),
+        () -> assertEquals(new TextLocation(2, 1), TextLocation.of(text, 2)),
+        () -> assertEquals(new TextLocation(3, 3), TextLocation.of(text, text.indexOf("\"b\""))),
+        () -> assertEquals(new TextLocation(4, 2), TextLocation.of(text, text.length()))
+    );
+  }
+
+  @Test
+  public void describe() {
+    assertEquals("""
+        oops at line 2, column 8
+          "a": x,
+               ^""", TextLocation.describe("oops", "{\n  \"a\": x,\n  \"b\": 2\n}", 9));
+  }
+
+  @Test
+  public void describeLongLine() {
+    var text = "a".repeat(100) + "!" + "b".repeat(100);
+    assertEquals("oops at line 1, column 101\n"
+        + "..." + "a".repeat(32) + "!" + "b".repeat(31) + "...\n"
+        + " ".repeat(35) + "^", TextLocation.describe("oops", text, 100));
+  }
+
+  @Test
+  public void describeEndOfText() {
+    assertEquals("""
+        oops at line 1, column 4
+        [ 1
+           ^""", TextLocation.describe("oops", "[ 1", 3));
+  }
+}
@@ -9,12 +9,19 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ToyJSONParserTest {
   private static Object asJava(String text) {
+    return asJava(text, ToyJSONParser::parse);
+  }
+
+  private static Object asJava(String text, BiConsumer<String, JSONVisitor> parser) {
     var visitor = new JSONVisitor() {
       private Object result;
       private final ArrayDeque<Object> stack = new ArrayDeque<>();
@@ -64,7 +71,7 @@ class ToyJSONParserTest {
         }
       }
     };
-    ToyJSONParser.parse(text, visitor);
+    parser.accept(text, visitor);
     return visitor.result;
   }
 
@@ -143,4 +150,194 @@ class ToyJSONParserTest {
         [ 13.4, null ]
         """));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void parseEscapedStrings() {
+    assertAll(
+        () -> assertEquals(List.of("say \"hello\""), asJava("""
+            [ "say \\"hello\\"" ]
+            """)),
+        () -> assertEquals(List.of("a\nb\tc\\d/e"), asJava("""
+            [ "a\\nb\\tc\\\\d\\/e" ]
+            """)),
+        () -> assertEquals(List.of("\u00e9t\u00e9"), asJava("""
+            [ "\\u00e9t\\u00E9" ]
+            """)),
+        () -> assertEquals(List.of("\uD83D\uDE00"), asJava("""
+            [ "\\uD83D\\uDE00" ]
+            """)),
+        () -> assertEquals(Map.of("k\"ey", "value"), asJava("""
+            { "k\\"ey": "value" }
+            """))
+    );
+  }
+
+  @Test
+  public void parseLongStrings() {
+    // a string is scanned without a regex repetition, so its length is not bounded by the thread stack
+    var value = "a".repeat(1_000_000);
+    var escaped = "a\\n".repeat(100_000);
+    assertAll(
+        () -> assertEquals(List.of(value), asJava("[ \"" + value + "\" ]")),
+        () -> assertEquals(List.of("a\n".repeat(100_000)), asJava("[ \"" + escaped + "\" ]")),
+        () -> assertEquals(Map.of(value, 1), asJava("{ \"" + value + "\": 1 }"))
+    );
+  }
+
+  @Test
+  public void parseInvalidEscapedStrings() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> asJava("""
+            [ "\\x" ]
+            """)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("""
+            [ "\\u12" ]
+            """)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("""
+            [ "\\uZZZZ" ]
+            """))
+    );
+  }
+
+  @Test
+  public void parseErrorReportsLineAndColumn() {
+    var exception = assertThrows(IllegalStateException.class, () -> asJava("""
+        {
+          "foo": 1,
+          "bar" 2
+        }
+        """));
+    assertAll(
+        () -> assertTrue(exception.getMessage().contains("line 3, column 9"), exception.getMessage()),
+        () -> assertTrue(exception.getMessage().endsWith("\n  \"bar\" 2\n" + " ".repeat(8) + "^"), exception.getMessage())
+    );
+  }
+
+  @Test
+  public void parseUnknownCharacter() {
+    var exception = assertThrows(IllegalStateException.class, () -> asJava("""
+        {"name":"a","age": tru }
+        """));
+    assertAll(
+        () -> assertTrue(exception.getMessage().startsWith("unexpected character 't'"), exception.getMessage()),
+        () -> assertTrue(exception.getMessage().contains("line 1, column 20"), exception.getMessage()),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[x12]")),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[1, @2]")),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[x12]", (t, visitor) -> ToyJSONParser.parseIterative(t, visitor, JSONLimits.DEFAULT))),
+        () -> assertEquals(List.of(1, 2), asJava("[\r\n  1,\r\n  2\r\n]"))
+    );
+  }
+
+  @Test
+  public void parseErrorOfALargeTextHasABoundedMessage() {
+    var text = "[ " + "1, ".repeat(1_000_000) + "} ]";
+    var exception = assertThrows(IllegalStateException.class, () -> asJava(text));
+    assertAll(
+        () -> assertTrue(exception.getMessage().contains("line 1, column 3000003"), exception.getMessage()),
+        () -> assertTrue(exception.getMessage().length() < 300, exception.getMessage())
+    );
+  }
+
+  @Test
+  public void parseIterative() {
+    BiConsumer<String, JSONVisitor> iterative = (text, visitor) -> ToyJSONParser.parseIterative(text, visitor, JSONLimits.DEFAULT);
+    var texts = List.of(
+        "{}",
+        "[]",
+        """
+        { "a": [1, 2.5, [], {}], "b": { "c": null, "d": [true, false] }, "e": "f" }
+        """,
+        """
+        [ [ [ { "x": [ { } ] } ] ], "end" ]
+        """);
+    assertAll(texts.stream().map(text -> () -> assertEquals(asJava(text), asJava(text, iterative))));
+  }
+
+  @Test
+  public void parseIterativeDeeplyNested() {
+    var depth = 100_000;
+    var text = "[".repeat(depth) + "]".repeat(depth);
+    var limits = JSONLimits.DEFAULT.withMaxDepth(depth);
+    var result = asJava(text, (t, visitor) -> ToyJSONParser.parseIterative(t, visitor, limits));
+    for(var i = 1; i < depth; i++) {
+      result = ((List<?>) result).getFirst();
+    }
+    assertEquals(List.of(), result);
+  }
+
+  @Test
+  public void parseTooDeep() {
+    var text = "[".repeat(10_000_000);
+    var limits = JSONLimits.DEFAULT.withMaxDepth(10);
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> asJava(text)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava(text, (t, visitor) -> ToyJSONParser.parseIterative(t, visitor, JSONLimits.DEFAULT))),
+        () -> {
+          var exception = assertThrows(IllegalStateException.class, () -> asJava(text, (t, visitor) -> ToyJSONParser.parse(t, visitor, limits)));
+          assertTrue(exception.getMessage().contains("line 1, column 11"), exception.getMessage());
+        },
+        () -> assertEquals(List.of(List.of()), asJava("[[]]", (t, visitor) -> ToyJSONParser.parse(t, visitor, limits.withMaxDepth(2))))
+    );
+  }
+
+  @Test
+  public void parseStringTooLong() {
+    var limits = JSONLimits.DEFAULT.withMaxStringLength(3);
+    BiConsumer<String, JSONVisitor> parser = (text, visitor) -> ToyJSONParser.parse(text, visitor, limits);
+    assertAll(
+        () -> assertEquals(List.of("abc", "a\\"), asJava("""
+            [ "abc", "a\\\\" ]
+            """, parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("""
+            [ "abcd" ]
+            """, parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("""
+            { "abcd": 1 }
+            """, parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[ \"" + "a".repeat(10_000_000), parser))
+    );
+  }
+
+  @Test
+  public void parseNumberTooLong() {
+    var limits = JSONLimits.DEFAULT.withMaxNumberLength(4);
+    BiConsumer<String, JSONVisitor> parser = (text, visitor) -> ToyJSONParser.parse(text, visitor, limits);
+    assertAll(
+        () -> assertEquals(List.of(1234, 1.25), asJava("[1234, 1.25]", parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[12345]", parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[1.234]", parser))
+    );
+  }
+
+  @Test
+  public void parseContainerTooLarge() {
+    var limits = JSONLimits.DEFAULT.withMaxContainerSize(2);
+    BiConsumer<String, JSONVisitor> parser = (text, visitor) -> ToyJSONParser.parse(text, visitor, limits);
+    BiConsumer<String, JSONVisitor> iterative = (text, visitor) -> ToyJSONParser.parseIterative(text, visitor, limits);
+    assertAll(
+        () -> assertEquals(List.of(List.of(1, 2), Map.of("a", 3, "b", 4)), asJava("[[1, 2], {\"a\": 3, \"b\": 4}]", parser)),
+        () -> assertEquals(List.of(List.of(1, 2), Map.of("a", 3, "b", 4)), asJava("[[1, 2], {\"a\": 3, \"b\": 4}]", iterative)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[1, 2, 3]", parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("{\"a\": 1, \"b\": 2, \"c\": 3}", parser)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("[[1, 2, 3]]", iterative)),
+        () -> assertThrows(IllegalStateException.class, () -> asJava("{\"a\": {\"b\": 1, \"c\": 2, \"d\": 3}}", iterative))
+    );
+  }
+
+  @Test
+  public void parseUnterminatedString() {
+    assertThrows(IllegalStateException.class, () -> asJava("""
+        { "foo": "bar }
+        """));
+  }
+
+  @Test
+  public void invalidLimits() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> new JSONLimits(0, 1, 1, 1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONLimits.DEFAULT.withMaxStringLength(-1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONLimits.DEFAULT.withMaxNumberLength(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONLimits.DEFAULT.withMaxContainerSize(0))
+    );
+  }
+}
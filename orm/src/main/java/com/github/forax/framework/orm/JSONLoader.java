@@ -0,0 +1,256 @@
+package com.github.forax.framework.orm;
+
+import com.github.forax.framework.mapper.ToyJSONParser;
+
+import java.beans.PropertyDescriptor;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Serial;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a text in the JSON Lines format (one JSON object per line) into the table of a bean class.
+ *
+ * The events of the JSON parser are bound directly to the parameters of a prepared INSERT statement
+ * executed by batches, so no bean is created. The keys of a JSON object are the names of the properties
+ * of the bean class, the columns and the table are named like {@link ORM#createTable(Class)} does,
+ * a missing key inserts {@code NULL}.
+ * <pre>
+ *   ORM.transaction(dataSource, () -&gt; {
+ *     ORM.createTable(Person.class);
+ *     try (var reader = Files.newBufferedReader(path)) {
+ *       JSONLoader.load(Person.class, reader);
+ *     }
+ *   });
+ * </pre>
+ */
+public final class JSONLoader {
+  private JSONLoader() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Number of rows sent to the database at once.
+   */
+  static final int DEFAULT_BATCH_SIZE = 1_000;
+
+  private static final class UncheckedSQLException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 42L;
+
+    private UncheckedSQLException(SQLException cause) {
+      super(cause);
+    }
+
+    @Override
+    public SQLException getCause() {
+      return (SQLException) super.getCause();
+    }
+  }
+
+  static String createInsertQuery(String tableName, PropertyDescriptor[] properties) {
+    return "INSERT INTO " + tableName + " " +
+        Arrays.stream(properties)
+            .map(ORM::findColumnName)
+            .collect(Collectors.joining(", ", "(", ")"))
+        + " VALUES " +
+        Arrays.stream(properties)
+            .map(__ -> "?")
+            .collect(Collectors.joining(", ", "(", ")"))
+        + ";";
+  }
+
+  /**
+   * Binds the values of the members of one JSON object to the parameters of the statement.
+   */
+  private static final class RowBinder implements ToyJSONParser.JSONVisitor {
+    private final PreparedStatement statement;
+    private final String[] names;
+    private final boolean[] seen;
+    private int index = -1;  // index of the property of the last key recognized by key(), or -1
+    private int depth;
+
+    private RowBinder(PreparedStatement statement, PropertyDescriptor[] properties) {
+      this.statement = statement;
+      this.names = Arrays.stream(properties).map(PropertyDescriptor::getName).toArray(String[]::new);
+      this.seen = new boolean[names.length];
+    }
+
+    @Override
+    public String key(String input, int start, int end) {
+      // the keys are the names of the properties, so a known key is not allocated and its index is kept
+      for(var i = 0; i < names.length; i++) {
+        var name = names[i];
+        if (name.length() == end - start && input.startsWith(name, start)) {
+          index = i;
+          return name;
+        }
+      }
+      return null;  // the parser creates the key, it is only used to report the error
+    }
+
+    private int parameter(String key) {
+      var index = this.index;
+      this.index = -1;
+      if (index == -1) {
+        // an unknown key or a key with an escape sequence, not recognized by key()
+        index = Arrays.asList(names).indexOf(key);
+        if (index == -1) {
+          throw new IllegalStateException("unknown key " + key);
+        }
+      }
+      seen[index] = true;
+      return index + 1;
+    }
+
+    @Override
+    public void value(String key, Object value) {
+      var parameter = parameter(key);
+      try {
+        statement.setObject(parameter, value);
+      } catch (SQLException e) {
+        throw new UncheckedSQLException(e);
+      }
+    }
+
+    @Override
+    public void intValue(String key, int value) {
+      var parameter = parameter(key);
+      try {
+        statement.setInt(parameter, value);
+      } catch (SQLException e) {
+        throw new UncheckedSQLException(e);
+      }
+    }
+
+    @Override
+    public void longValue(String key, long value) {
+      var parameter = parameter(key);
+      try {
+        statement.setLong(parameter, value);
+      } catch (SQLException e) {
+        throw new UncheckedSQLException(e);
+      }
+    }
+
+    @Override
+    public void doubleValue(String key, double value) {
+      var parameter = parameter(key);
+      try {
+        statement.setDouble(parameter, value);
+      } catch (SQLException e) {
+        throw new UncheckedSQLException(e);
+      }
+    }
+
+    @Override
+    public void startObject(String key) {
+      if (depth++ != 0) {
+        throw new IllegalStateException("the value of the key " + key + " can not be an object");
+      }
+    }
+
+    @Override
+    public void endObject(String key) {
+      depth--;
+    }
+
+    @Override
+    public void startArray(String key) {
+      throw new IllegalStateException(key == null ? "a line should be a JSON object" : "the value of the key " + key + " can not be an array");
+    }
+
+    @Override
+    public void endArray(String key) {
+      throw new AssertionError();
+    }
+
+    private void bindMissingValues() throws SQLException {
+      for(var i = 0; i < seen.length; i++) {
+        if (!seen[i]) {
+          statement.setObject(i + 1, null);
+        }
+        seen[i] = false;
+      }
+    }
+  }
+
+  /**
+   * Loads the lines of a JSON Lines text into the table of a bean class,
+   * using the connection of the current transaction.
+   *
+   * @param beanClass the bean class of the table
+   * @param reader the JSON Lines text, the blank lines are ignored
+   * @return the number of rows inserted
+   * @throws SQLException if an insert fails
+   * @throws IOException if the text can not be read
+   * @throws IllegalStateException if there is no transaction or a line is not a valid JSON object
+   *
+   * @see ORM#transaction(org.h2.jdbcx.JdbcDataSource, ORM.TransactionBlock)
+   */
+  public static long load(Class<?> beanClass, BufferedReader reader) throws SQLException, IOException {
+    return load(beanClass, reader, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Loads the lines of a JSON Lines text into the table of a bean class,
+   * using the connection of the current transaction.
+   *
+   * @param beanClass the bean class of the table
+   * @param reader the JSON Lines text, the blank lines are ignored
+   * @param batchSize the number of rows sent to the database at once
+   * @return the number of rows inserted
+   * @throws SQLException if an insert fails
+   * @throws IOException if the text can not be read
+   * @throws IllegalStateException if there is no transaction or a line is not a valid JSON object
+   * @throws IllegalArgumentException if the batch size is not positive
+   */
+  public static long load(Class<?> beanClass, BufferedReader reader, int batchSize) throws SQLException, IOException {
+    Objects.requireNonNull(beanClass);
+    Objects.requireNonNull(reader);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("invalid batch size " + batchSize);
+    }
+    var connection = ORM.currentConnection();
+    var properties = Arrays.stream(Utils.beanInfo(beanClass).getPropertyDescriptors())
+        .filter(property -> !property.getName().equals("class") && property.getReadMethod() != null)
+        .toArray(PropertyDescriptor[]::new);
+    var query = createInsertQuery(ORM.findTableName(beanClass), properties);
+    try (var statement = connection.prepareStatement(query)) {
+      var binder = new RowBinder(statement, properties);
+      var count = 0L;
+      var pending = 0;
+      var lineNumber = 0L;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          ToyJSONParser.parse(line, binder);
+        } catch (UncheckedSQLException e) {
+          throw e.getCause();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+          // an invalid text or a value that can not be converted, e.g. a NumberFormatException
+          throw new IllegalStateException("line " + lineNumber + ": " + e.getMessage(), e);
+        }
+        binder.bindMissingValues();
+        statement.addBatch();
+        count++;
+        if (++pending == batchSize) {
+          statement.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending != 0) {
+        statement.executeBatch();
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package com.github.forax.framework.orm;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyDescriptor;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JSONLoaderTest {
+  @SuppressWarnings("unused")
+  @Table("ITEM")
+  public static final class Item {
+    private long id;
+    private String name;
+    private Double price;
+
+    public Item() { }  // for reflection
+
+    @Id
+    public long getId() {
+      return id;
+    }
+    public void setId(long id) {
+      this.id = id;
+    }
+    @Column("LABEL")
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+    public Double getPrice() {
+      return price;
+    }
+    public void setPrice(Double price) {
+      this.price = price;
+    }
+  }
+
+  private record Row(long id, String name, Double price) {}
+
+  private static JdbcDataSource dataSource() {
+    var dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:test");
+    return dataSource;
+  }
+
+  private static void createItemTable() throws SQLException {
+    try(var statement = ORM.currentConnection().createStatement()) {
+      statement.executeUpdate("""
+          CREATE TABLE ITEM (
+            ID BIGINT NOT NULL,
+            LABEL VARCHAR(255),
+            PRICE DOUBLE,
+            PRIMARY KEY (ID)
+          );
+          """);
+    }
+  }
+
+  private static long load(String text, int batchSize) throws SQLException {
+    try {
+      return JSONLoader.load(Item.class, new BufferedReader(new StringReader(text)), batchSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static long load(String text) throws SQLException {
+    return load(text, JSONLoader.DEFAULT_BATCH_SIZE);
+  }
+
+  private static List<Row> rows() throws SQLException {
+    var rows = new ArrayList<Row>();
+    try(var statement = ORM.currentConnection().createStatement()) {
+      var resultSet = statement.executeQuery("SELECT ID, LABEL, PRICE FROM ITEM ORDER BY ID;");
+      while(resultSet.next()) {
+        rows.add(new Row(resultSet.getLong(1), resultSet.getString(2), (Double) resultSet.getObject(3)));
+      }
+    }
+    return rows;
+  }
+
+  @Test
+  public void createInsertQuery() {
+    var properties = Arrays.stream(Utils.beanInfo(Item.class).getPropertyDescriptors())
+        .filter(property -> !property.getName().equals("class"))
+        .toArray(PropertyDescriptor[]::new);
+    assertEquals("INSERT INTO ITEM (ID, LABEL, PRICE) VALUES (?, ?, ?);",
+        JSONLoader.createInsertQuery("ITEM", properties));
+  }
+
+  @Test
+  public void loadLines() throws SQLException {
+    var text = """
+        { "id": 1, "name": "chair", "price": 12.5 }
+
+        { "price": 3.25, "id": 2 }
+        {"id":3,"name":"table","price":null}
+        """;
+    ORM.transaction(dataSource(), () -> {
+      createItemTable();
+      var count = load(text);
+      assertAll(
+            () -> assertEquals(3, count),
+            () -> assertEquals(List.of(
+                new Row(1, "chair", 12.5),
+                new Row(2, null, 3.25),
+                new Row(3, "table", null)), rows())
+      );
+    });
+  }
+
+  @Test
+  public void loadSeveralBatches() throws SQLException {
+    var text = IntStream.range(0, 2_500)
+        .mapToObj(i -> "{ \"id\": " + i + ", \"name\": \"item " + i + "\" }")
+        .collect(Collectors.joining("\n"));
+    ORM.transaction(dataSource(), () -> {
+      createItemTable();
+      var count = load(text, 1_000);
+      var rows = rows();
+      assertAll(
+            () -> assertEquals(2_500, count),
+            () -> assertEquals(2_500, rows.size()),
+            () -> assertEquals(new Row(2_499, "item 2499", null), rows.getLast())
+      );
+    });
+  }
+
+  @Test
+  public void loadNumbers() throws SQLException {
+    var text = """
+        { "id": -5, "price": -12.5 }
+        { "id": 3000000000, "price": 1.5e2 }
+        { "id": -3000000000, "price": -2E-1 }
+        """;
+    ORM.transaction(dataSource(), () -> {
+      createItemTable();
+      load(text);
+      assertEquals(List.of(
+          new Row(-3_000_000_000L, null, -0.2),
+          new Row(-5, null, -12.5),
+          new Row(3_000_000_000L, null, 150.0)), rows());
+    });
+  }
+
+  private static void assertMessage(String expected, Exception exception) {
+    assertTrue(exception.getMessage().startsWith(expected), exception.getMessage());
+  }
+
+  @Test
+  public void loadInvalidLines() throws SQLException {
+    ORM.transaction(dataSource(), () -> {
+      createItemTable();
+      assertAll(
+          () -> assertMessage("line 2: unknown key color", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": 1 }
+              { "id": 2, "color": "red" }
+              """))),
+          () -> assertMessage("line 1: the value of the key name can not be an object", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": 1, "name": { "first": "chair" } }
+              """))),
+          () -> assertMessage("line 1: the value of the key name can not be an array", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": 1, "name": [ "chair" ] }
+              """))),
+          () -> assertMessage("line 3: a line should be a JSON object", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": 1 }
+
+              [ 1, "chair" ]
+              """))),
+          () -> assertMessage("line 1: expect LEFT_CURLY, LEFT_BRACKET but recognized INTEGER", assertThrows(IllegalStateException.class, () -> load("""
+              42
+              """))),
+          () -> assertMessage("line 1: unexpected character 'x'", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": x12 }
+              """))),
+          () -> assertMessage("line 2: integer too large", assertThrows(IllegalStateException.class, () -> load("""
+              { "id": 1 }
+              { "id": 99999999999999999999 }
+              """))),
+          () -> assertThrows(SQLException.class, () -> load("""
+              { "name": "no id" }
+              """))
+      );
+    });
+  }
+
+  @Test
+  public void loadEscapedKey() throws SQLException {
+    ORM.transaction(dataSource(), () -> {
+      createItemTable();
+      load("""
+          { "id": 1, "n\\u0061me": "chair" }
+          """);
+      assertEquals(List.of(new Row(1, "chair", null)), rows());
+    });
+  }
+
+  @Test
+  public void loadPreconditions() {
+    var reader = new BufferedReader(new StringReader(""));
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> JSONLoader.load(Item.class, reader)),
+        () -> assertThrows(NullPointerException.class, () -> JSONLoader.load(null, reader)),
+        () -> assertThrows(NullPointerException.class, () -> JSONLoader.load(Item.class, null)),
+        () -> assertThrows(IllegalArgumentException.class, () -> JSONLoader.load(Item.class, reader, 0))
+    );
+  }
+}